@@ -0,0 +1,185 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.support.ui.Sleeper;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polling schedule for {@link WaitUtils}.
+ * The first check is immediate (FluentWait evaluates before its first sleep). After that the interval starts
+ * from what this locator usually needs to appear and backs off exponentially with jitter up to a cap:
+ * <ul>
+ *     <li>{@code wait.polling.initial.millis} - smallest starting interval (default 50)</li>
+ *     <li>{@code wait.polling.max.millis} - cap on any single interval (default 1000)</li>
+ *     <li>{@code wait.polling.multiplier} - backoff factor (default 2.0)</li>
+ *     <li>{@code wait.polling.jitter} - +/- fraction applied to each interval (default 0.2)</li>
+ *     <li>{@code wait.polling.adaptive=false} - go back to fixed {@code default.wait.polling.millis}</li>
+ * </ul>
+ * Appearance latency is tracked per locator as an exponentially weighted moving average.
+ * Every wait is compared with the fixed-interval baseline to count round trips saved.
+ */
+public final class AdaptivePolling {
+
+    private static final Logger logger = LogManager.getLogger(AdaptivePolling.class);
+
+    private static final double EWMA_WEIGHT = 0.3;
+
+    private static final boolean ADAPTIVE;
+    private static final long INITIAL_MILLIS;
+    private static final long MAX_MILLIS;
+    private static final double MULTIPLIER;
+    private static final double JITTER;
+    private static final long FIXED_MILLIS;
+
+    private static final Map<String, Double> latencyEwma = new ConcurrentHashMap<>();
+
+    private static final AtomicLong waits = new AtomicLong();
+    private static final AtomicLong polls = new AtomicLong();
+    private static final AtomicLong baselinePolls = new AtomicLong();
+
+    static {
+        ConfigReader config = ConfigReader.getInstance();
+        ADAPTIVE = config.getBoolean("wait.polling.adaptive", true);
+        INITIAL_MILLIS = config.getLong("wait.polling.initial.millis", 50);
+        MAX_MILLIS = config.getLong("wait.polling.max.millis", 1000);
+        MULTIPLIER = config.getDouble("wait.polling.multiplier", 2.0);
+        JITTER = config.getDouble("wait.polling.jitter", 0.2);
+        FIXED_MILLIS = config.getLong("default.wait.polling.millis", 500);
+    }
+
+    private AdaptivePolling() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Starts the schedule for one wait.
+     *
+     * @param key identifies what is waited for, usually the locator
+     */
+    public static Schedule start(String key) {
+        return new Schedule(key, -1, -1);
+    }
+
+    /**
+     * Starts the schedule for one wait using what earlier runs learned about the locator.
+     *
+     * @param learnedP95Millis p95 appearance time from earlier runs, used when this run has not seen the locator; -1 if unknown
+     * @param warnAfterMillis  log an early warning once the wait runs this long; -1 for none
+     */
+    public static Schedule start(String key, long learnedP95Millis, long warnAfterMillis) {
+        return new Schedule(key, learnedP95Millis, warnAfterMillis);
+    }
+
+    /**
+     * @return the average time the locator took to appear, or -1 if it has not been seen yet
+     */
+    public static long getObservedLatencyMillis(String key) {
+        Double latency = latencyEwma.get(key);
+        return latency == null ? -1 : Math.round(latency);
+    }
+
+    /**
+     * Logs polls made against the fixed-interval baseline. Called once after all scenarios.
+     */
+    public static void logSummary() {
+        long made = polls.get();
+        long baseline = baselinePolls.get();
+        logger.info("Wait polling summary - adaptive: {}, waits: {}, polls: {}, fixed {} ms baseline: {}, round trips saved: {}",
+                ADAPTIVE, waits.get(), made, FIXED_MILLIS, baseline, baseline - made);
+    }
+
+    /**
+     * Interval for the n-th sleep of a wait that started at {@code startMillis}, before jitter.
+     */
+    static long intervalFor(long startMillis, int sleepIndex) {
+        double interval = startMillis * Math.pow(MULTIPLIER, sleepIndex);
+        return (long) Math.min(MAX_MILLIS, interval);
+    }
+
+    private static long startingInterval(String key, long learnedP95Millis) {
+        Double latency = latencyEwma.get(key);
+        if (latency == null && learnedP95Millis > 0) {
+            latency = (double) learnedP95Millis;
+        }
+        if (latency == null) {
+            return INITIAL_MILLIS;
+        }
+        // Aim the first sleeps well below the usual latency so a typical element is caught within one backoff step
+        return Math.max(INITIAL_MILLIS, Math.min(MAX_MILLIS, Math.round(latency / 4)));
+    }
+
+    /**
+     * Per-wait state, passed to FluentWait as its {@link Sleeper}. The requested duration is ignored;
+     * the schedule decides each interval itself.
+     */
+    public static final class Schedule implements Sleeper {
+
+        private final String key;
+        private final long startMillis = System.currentTimeMillis();
+        private final long firstInterval;
+        private final long warnAfterMillis;
+        private int sleeps;
+        private boolean warned;
+
+        private Schedule(String key, long learnedP95Millis, long warnAfterMillis) {
+            this.key = key;
+            this.firstInterval = startingInterval(key, learnedP95Millis);
+            this.warnAfterMillis = warnAfterMillis;
+        }
+
+        @Override
+        public void sleep(Duration ignored) throws InterruptedException {
+            long elapsed = System.currentTimeMillis() - startMillis;
+            if (!warned && warnAfterMillis > 0 && elapsed > warnAfterMillis) {
+                warned = true;
+                logger.warn("Still waiting for {} after {} ms; earlier runs suggest it should have appeared by {} ms.", key, elapsed, warnAfterMillis);
+            }
+            long interval = ADAPTIVE ? jittered(intervalFor(firstInterval, sleeps)) : FIXED_MILLIS;
+            sleeps++;
+            long sleepStart = System.currentTimeMillis();
+            try {
+                Thread.sleep(interval);
+            } finally {
+                IdleBudget.record(IdleBudget.Kind.WAIT, key, System.currentTimeMillis() - sleepStart);
+            }
+        }
+
+        /**
+         * Records the outcome: the appearance latency on success, and the poll counts either way.
+         *
+         * @param satisfied true if the condition was met before the timeout
+         * @return how long the wait took
+         */
+        public long finish(boolean satisfied) {
+            long elapsed = System.currentTimeMillis() - startMillis;
+            long made = sleeps + 1L;
+            long baseline = elapsed / FIXED_MILLIS + 1;
+
+            waits.incrementAndGet();
+            polls.addAndGet(made);
+            baselinePolls.addAndGet(baseline);
+
+            if (satisfied) {
+                latencyEwma.merge(key, (double) elapsed,
+                        (previous, sample) -> previous + EWMA_WEIGHT * (sample - previous));
+            }
+            logger.debug("Wait for {} {} after {} ms with {} poll(s) (fixed baseline: {}).",
+                    key, satisfied ? "succeeded" : "timed out", elapsed, made, baseline);
+            return elapsed;
+        }
+
+        private static long jittered(long interval) {
+            if (JITTER <= 0) {
+                return interval;
+            }
+            double factor = 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+            return Math.max(1, Math.round(interval * factor));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package utils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the executors used for background helpers (session prefetch, server start-up,
+ * screenshot writing).
+ * With {@code execution.virtual.threads=true} in config.properties they run on virtual threads,
+ * so blocking on HTTP, ADB or DB calls does not tie up a platform thread per task.
+ */
+public final class BackgroundExecutors {
+
+    private static final boolean VIRTUAL_THREADS = ConfigReader.getInstance().getBoolean("execution.virtual.threads", false);
+
+    private BackgroundExecutors() {
+        // Prevent instantiation
+    }
+
+    public static boolean isVirtualThreadsEnabled() {
+        return VIRTUAL_THREADS;
+    }
+
+    /**
+     * @param name thread name prefix
+     * @return a factory for virtual threads, or daemon platform threads when virtual threads are off
+     */
+    public static ThreadFactory threadFactory(String name) {
+        return threadFactory(name, VIRTUAL_THREADS);
+    }
+
+    /**
+     * Same as {@link #threadFactory(String)}, choosing the thread kind regardless of configuration.
+     */
+    public static ThreadFactory threadFactory(String name, boolean virtual) {
+        return virtual
+                ? Thread.ofVirtual().name(name + "-", 0).factory()
+                : Thread.ofPlatform().name(name + "-", 0).daemon(true).factory();
+    }
+
+    /**
+     * Executor whose concurrency is bounded by {@code maxThreads}.
+     */
+    public static ExecutorService newExecutor(String name, int maxThreads) {
+        return newExecutor(name, maxThreads, VIRTUAL_THREADS);
+    }
+
+    /**
+     * Same as {@link #newExecutor(String, int)}, choosing the thread kind regardless of configuration.
+     */
+    public static ExecutorService newExecutor(String name, int maxThreads, boolean virtual) {
+        return Executors.newFixedThreadPool(Math.max(1, maxThreads), threadFactory(name, virtual));
+    }
+
+    /**
+     * Executor with {@code maxThreads} workers and room for {@code queueCapacity} waiting tasks.
+     * When the queue is full the submitting thread runs the task itself, which slows producers
+     * down instead of queueing without bound.
+     */
+    public static ExecutorService newBoundedExecutor(String name, int maxThreads, int queueCapacity) {
+        int threads = Math.max(1, maxThreads);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory(name),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public static ScheduledExecutorService newScheduledExecutor(String name) {
+        return Executors.newSingleThreadScheduledExecutor(threadFactory(name));
+    }
+}
@@ -8,7 +8,10 @@ import org.apache.logging.log4j.Logger;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Loads properties from config.properties file as a singleton.
@@ -21,6 +24,7 @@ public class ConfigReader {
     public static boolean SHOW_APPIUM_LOGS = Boolean.parseBoolean(ConfigReader.getInstance().getProperty("show.appium.logs")); //working on this
 
     private final Properties properties;
+    private final Map<String, Object> typedValues = new ConcurrentHashMap<>();
 
     public ConfigReader() {
         properties = new Properties();
@@ -67,6 +71,35 @@ public class ConfigReader {
         return properties.getProperty(key, defaultValue);
     }
 
+    /**
+     * Typed getters parse a value once and cache it, so hot paths do not re-parse config on every call.
+     * The default is returned, unparsed, when the key is absent.
+     */
+    public int getInt(String key, int defaultValue) {
+        return getTyped("int", key, defaultValue, Integer::parseInt);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return getTyped("long", key, defaultValue, Long::parseLong);
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        return getTyped("double", key, defaultValue, Double::parseDouble);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return getTyped("boolean", key, defaultValue, Boolean::parseBoolean);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getTyped(String type, String key, T defaultValue, Function<String, T> parser) {
+        String raw = properties.getProperty(key);
+        if (raw == null || raw.isBlank()) {
+            return defaultValue;
+        }
+        return (T) typedValues.computeIfAbsent(type + ":" + key, cacheKey -> parser.apply(raw.trim()));
+    }
+
     public JsonNode loadAppiumJsonConfig(String env) {
         try {
             String path = System.getProperty("user.dir") + "/src/test/resources/appium/server-configs/" + env + ".json";
@@ -144,7 +144,7 @@ public class DBUtils {
      */
     private static void sleep(int seconds) {
         try {
-            Thread.sleep(seconds * 1000L);
+            IdleBudget.sleep("DBUtils.getOTP retry", seconds * 1000L);
             logger.info("Waiting {} seconds before next DB retry...", seconds);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -0,0 +1,218 @@
+package utils;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.android.AndroidDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.ScreenOrientation;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Geometry and platform facts about a driver session, read once per session instead of by every helper.
+ * Capabilities are read locally; the viewport costs one round trip, and density and API level one
+ * {@code mobile: deviceInfo} call only when the session capabilities do not carry them.
+ * <p>
+ * Geometry changes only when the device rotates: rotate through {@link MobileActions#rotate} or call
+ * {@link #refreshGeometry(AppiumDriver)} after the app rotated on its own.
+ */
+public final class DeviceProfile {
+
+    private static final Logger logger = LogManager.getLogger(DeviceProfile.class);
+
+    private static final Map<AppiumDriver, DeviceProfile> profiles = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AppiumDriver driver;
+    private final Capabilities capabilities;
+    private final boolean android;
+    private final String platformName;
+    private final String platformVersion;
+    private final String automationName;
+    private final String deviceId;
+    private final String appPackage;
+    private final int apiLevel;
+    private final int densityDpi;
+    private volatile Dimension viewport;
+    private volatile ScreenOrientation orientation;
+
+    private DeviceProfile(AppiumDriver driver) {
+        this.driver = driver;
+        this.capabilities = driver.getCapabilities();
+        this.android = driver instanceof AndroidDriver;
+        this.platformName = capability("platformName");
+        this.platformVersion = capability("platformVersion");
+        this.automationName = capability("automationName");
+        this.deviceId = deviceId(capabilities);
+        this.appPackage = capability("appPackage");
+
+        int api = parseInt(capability("deviceApiLevel"));
+        int density = parseInt(capability("deviceScreenDensity"));
+        if ((api < 0 || density < 0) && isUiAutomator2()) {
+            Map<String, Object> info = deviceInfo(driver);
+            api = api < 0 ? parseInt(info.get("apiVersion")) : api;
+            density = density < 0 ? parseInt(info.get("displayDensity")) : density;
+        }
+        this.apiLevel = api;
+        this.densityDpi = density;
+        readGeometry();
+        logger.info("Device profile for session {}: {}", driver.getSessionId(), this);
+    }
+
+    /**
+     * @return the profile of this session, built on first use
+     */
+    public static DeviceProfile of(AppiumDriver driver) {
+        DeviceProfile profile = profiles.get(driver);
+        if (profile != null) {
+            return profile;
+        }
+        // Built outside the map's lock: it costs round trips, and other sessions must not wait on them
+        DeviceProfile built = new DeviceProfile(driver);
+        DeviceProfile existing = profiles.putIfAbsent(driver, built);
+        return existing != null ? existing : built;
+    }
+
+    /**
+     * Drops the profile of a session that is being quit. Needed because the profile holds its driver strongly,
+     * so the weak key alone never lets the entry go.
+     */
+    public static void remove(AppiumDriver driver) {
+        profiles.remove(driver);
+    }
+
+    /**
+     * Re-reads viewport size and orientation; call after the device was rotated.
+     */
+    public static DeviceProfile refreshGeometry(AppiumDriver driver) {
+        DeviceProfile profile = of(driver);
+        profile.readGeometry();
+        logger.info("Device geometry refreshed: {} {}", profile.orientation, profile.viewport);
+        return profile;
+    }
+
+    public Dimension viewport() {
+        return viewport;
+    }
+
+    public ScreenOrientation orientation() {
+        return orientation;
+    }
+
+    /**
+     * @return screen density in dpi, or -1 if the device did not report it
+     */
+    public int densityDpi() {
+        return densityDpi;
+    }
+
+    /**
+     * @return Android API level, or -1 if unknown
+     */
+    public int apiLevel() {
+        return apiLevel;
+    }
+
+    public boolean isAndroid() {
+        return android;
+    }
+
+    public boolean isUiAutomator2() {
+        return "uiautomator2".equalsIgnoreCase(automationName);
+    }
+
+    public String platformName() {
+        return platformName;
+    }
+
+    public String platformVersion() {
+        return platformVersion;
+    }
+
+    /**
+     * @return the device serial, or null if the session did not report one
+     */
+    public String deviceId() {
+        return deviceId;
+    }
+
+    /**
+     * @return the app package under test, or null if not set in the capabilities
+     */
+    public String appPackage() {
+        return appPackage;
+    }
+
+    public Capabilities capabilities() {
+        return capabilities;
+    }
+
+    /**
+     * @param key capability name without the "appium:" prefix
+     * @return the value as a string, whether or not the server returned it with the prefix; null if absent
+     */
+    public String capability(String key) {
+        return capability(capabilities, key);
+    }
+
+    /**
+     * Capability lookup for code that has the capabilities but no profile, e.g. before a session is profiled.
+     *
+     * @param key capability name without the "appium:" prefix
+     * @return the value as a string, whether or not the server returned it with the prefix; null if absent
+     */
+    public static String capability(Capabilities capabilities, String key) {
+        Object value = capabilities.getCapability(key);
+        if (value == null) {
+            value = capabilities.getCapability("appium:" + key);
+        }
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * @return the device serial from "udid", falling back to "deviceUDID"; null if neither is reported
+     */
+    public static String deviceId(Capabilities capabilities) {
+        String udid = capability(capabilities, "udid");
+        return udid != null ? udid : capability(capabilities, "deviceUDID");
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s (API %d, %d dpi, %s), %s %dx%d, app %s", platformName, platformVersion, apiLevel,
+                densityDpi, automationName, orientation, viewport.width, viewport.height, appPackage);
+    }
+
+    private void readGeometry() {
+        Dimension size = driver.manage().window().getSize();
+        viewport = size;
+        // Derived from the size to save a round trip
+        orientation = size.width > size.height ? ScreenOrientation.LANDSCAPE : ScreenOrientation.PORTRAIT;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> deviceInfo(AppiumDriver driver) {
+        try {
+            Object info = driver.executeScript("mobile: deviceInfo");
+            return info instanceof Map ? (Map<String, Object>) info : Map.of();
+        } catch (WebDriverException e) {
+            logger.debug("mobile: deviceInfo unavailable: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static int parseInt(Object value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
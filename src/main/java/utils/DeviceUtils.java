@@ -5,6 +5,9 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Utility class for interacting with connected Android devices via ADB.
@@ -13,7 +16,8 @@ public class DeviceUtils {
 
     private static final Logger logger = LogManager.getLogger(DeviceUtils.class);
 
-    private static final Object ADB_LOCK = new Object();
+    // A lock instead of synchronized so virtual threads waiting on ADB do not pin their carrier thread
+    private static final ReentrantLock ADB_LOCK = new ReentrantLock();
 
 
     private DeviceUtils() {
@@ -26,7 +30,25 @@ public class DeviceUtils {
      * @return true if at least one device is connected; false otherwise
      */
     public static boolean isAnyDeviceConnected() {
-        synchronized (ADB_LOCK) {
+        if (!getConnectedDevices().isEmpty()) {
+            logger.info("Found connected device.");
+            return true;
+        }
+
+        logger.warn("No devices connected.");
+        return false;
+    }
+
+    /**
+     * Lists the serials of all devices reported by {@code adb devices} in the "device" state.
+     * Offline and unauthorized devices are skipped.
+     *
+     * @return serials of the connected devices; empty if none or if ADB could not be run
+     */
+    public static List<String> getConnectedDevices() {
+        ADB_LOCK.lock();
+        try {
+            List<String> serials = new ArrayList<>();
             Process process = null;
             try {
                 ProcessBuilder builder = new ProcessBuilder("adb", "devices");
@@ -39,23 +61,24 @@ public class DeviceUtils {
                     String line;
                     while ((line = reader.readLine()) != null) {
                         if (line.endsWith("\tdevice")) {
-                            logger.info("Found connected device.");
-                            return true;
+                            serials.add(line.substring(0, line.indexOf('\t')).trim());
                         }
                     }
                 }
 
-                logger.warn("No devices connected.");
-                return false;
+                logger.debug("Connected devices: {}", serials);
+                return serials;
 
             } catch (Exception e) {
                 logger.error("Error while checking connected devices via ADB.", e);
-                return false;
+                return serials;
             } finally {
                 if (process != null) {
                     process.destroy();
                 }
             }
+        } finally {
+            ADB_LOCK.unlock();
         }
     }
 }
\ No newline at end of file
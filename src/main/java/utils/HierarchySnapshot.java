@@ -0,0 +1,353 @@
+package utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import utils.locators.ElementCache;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Read-only copy of the UI hierarchy taken with a single {@code getPageSource()} call.
+ * The page source is parsed into a flat list of nodes indexed by resource id, class and text, so presence checks
+ * and reads for many elements are answered locally instead of one findElement round trip each.
+ * Only interactions (tap, type, swipe) need to go to the device.
+ * <p>
+ * Simple XPaths such as {@code //*[@resource-id='x']} or {@code //android.widget.TextView[@text='y']} use the
+ * indexes; any other XPath is evaluated with the JDK XPath engine on a DOM built on first use.
+ * A snapshot does not change after capture, so take a new one once the screen has changed.
+ * Capturing one also tells the session's {@link ElementCache} whether the screen structure changed.
+ */
+public final class HierarchySnapshot {
+
+    private static final Logger logger = LogManager.getLogger(HierarchySnapshot.class);
+
+    private static final Pattern SIMPLE_XPATH =
+            Pattern.compile("//(\\*|[\\w.$]+)(?:\\[@([\\w-]+)=(['\"])([^'\"]*)\\3])?");
+
+    private final String pageSource;
+    private final long capturedAtMillis;
+    private final List<Node> nodes;
+    private final Map<String, List<Node>> byId = new HashMap<>();
+    private final Map<String, List<Node>> byClass = new HashMap<>();
+    private final Map<String, List<Node>> byText = new HashMap<>();
+
+    private Map<Element, Node> domNodes;
+    private Document document;
+
+    private HierarchySnapshot(String pageSource, List<Node> nodes) {
+        this.pageSource = pageSource;
+        this.capturedAtMillis = System.currentTimeMillis();
+        this.nodes = Collections.unmodifiableList(nodes);
+        for (Node node : nodes) {
+            if (!node.resourceId().isEmpty()) {
+                index(byId, node.resourceId(), node);
+                int shortIdStart = node.resourceId().indexOf(":id/");
+                if (shortIdStart >= 0) {
+                    index(byId, node.resourceId().substring(shortIdStart + 4), node);
+                }
+            }
+            index(byClass, node.className(), node);
+            if (!node.text().isEmpty()) {
+                index(byText, node.text(), node);
+            }
+        }
+    }
+
+    /**
+     * Fetches the page source once and parses it.
+     */
+    public static HierarchySnapshot capture(AppiumDriver driver) {
+        long start = System.currentTimeMillis();
+        HierarchySnapshot snapshot = parse(driver.getPageSource());
+        ElementCache.forContext(driver).observeHierarchy(snapshot.structureHash());
+        logger.debug("Captured hierarchy snapshot with {} nodes in {} ms.", snapshot.size(), System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    /**
+     * Parses a UiAutomator2 page source.
+     */
+    public static HierarchySnapshot parse(String pageSource) {
+        List<Node> nodes = new ArrayList<>();
+        List<Integer> openParents = new ArrayList<>();
+        XMLStreamReader reader = null;
+        try {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            reader = factory.createXMLStreamReader(new StringReader(pageSource));
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    int parent = openParents.isEmpty() ? -1 : openParents.getLast();
+                    nodes.add(Node.from(reader, nodes.size(), parent, openParents.size()));
+                    openParents.add(nodes.size() - 1);
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    openParents.removeLast();
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new RuntimeException("Failed to parse page source into a hierarchy snapshot", e);
+        } finally {
+            closeQuietly(reader);
+        }
+        return new HierarchySnapshot(pageSource, nodes);
+    }
+
+    /** --------------------------- Queries --------------------------- **/
+
+    /**
+     * @param id full resource id ("pkg:id/name") or just the name
+     */
+    public List<Node> findById(String id) {
+        return byId.getOrDefault(id, List.of());
+    }
+
+    public List<Node> findByClass(String className) {
+        return byClass.getOrDefault(className, List.of());
+    }
+
+    public List<Node> findByText(String text) {
+        return byText.getOrDefault(text, List.of());
+    }
+
+    public List<Node> findByTextContaining(String fragment) {
+        return nodes.stream().filter(node -> node.text().contains(fragment)).toList();
+    }
+
+    public List<Node> findByXPath(String xpath) {
+        Matcher simple = SIMPLE_XPATH.matcher(xpath.trim());
+        if (simple.matches()) {
+            return findSimple(simple.group(1), simple.group(2), simple.group(4));
+        }
+        return evaluateXPath(xpath);
+    }
+
+    /**
+     * Evaluates id, accessibilityId, className and xpath locators locally.
+     *
+     * @throws IllegalArgumentException for strategies only the device can evaluate (e.g. androidUIAutomator)
+     */
+    public List<Node> findAll(By locator) {
+        String strategy = Locators.strategy(locator);
+        String value = Locators.value(locator);
+        if (strategy != null) {
+            switch (strategy) {
+                case "id" -> {
+                    return findById(value);
+                }
+                case "className" -> {
+                    return findByClass(value);
+                }
+                case "accessibilityId" -> {
+                    return nodes.stream().filter(node -> node.contentDesc().equals(value)).toList();
+                }
+                case "xpath" -> {
+                    return findByXPath(value);
+                }
+                default -> {
+                    // Only the device can evaluate this strategy
+                }
+            }
+        }
+        throw new IllegalArgumentException("Locator cannot be evaluated on a snapshot: " + locator);
+    }
+
+    public static boolean isSupported(By locator) {
+        return Locators.toXPath(locator) != null;
+    }
+
+    public boolean exists(By locator) {
+        return !findAll(locator).isEmpty();
+    }
+
+    public boolean isDisplayed(By locator) {
+        return findAll(locator).stream().anyMatch(Node::isVisible);
+    }
+
+    /**
+     * @return the text of the first match, or null if nothing matches
+     */
+    public String getText(By locator) {
+        List<Node> matches = findAll(locator);
+        return matches.isEmpty() ? null : matches.getFirst().text();
+    }
+
+    /**
+     * Hash of the screen's structure (depth, class and resource id of every node), ignoring text and bounds
+     * so that a ticking counter or an animation does not count as a new screen.
+     */
+    public int structureHash() {
+        int hash = 1;
+        for (Node node : nodes) {
+            hash = 31 * hash + node.depth();
+            hash = 31 * hash + node.className().hashCode();
+            hash = 31 * hash + node.resourceId().hashCode();
+        }
+        return hash;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public long getCapturedAtMillis() {
+        return capturedAtMillis;
+    }
+
+    public String getPageSource() {
+        return pageSource;
+    }
+
+    /** --------------------------- Internals --------------------------- **/
+
+    private List<Node> findSimple(String tag, String attribute, String value) {
+        List<Node> candidates;
+        if (attribute == null) {
+            return "*".equals(tag) ? nodes : findByClass(tag);
+        }
+        switch (attribute) {
+            case "resource-id" -> candidates = byId.getOrDefault(value, List.of()).stream()
+                    .filter(node -> node.resourceId().equals(value)).toList();
+            case "text" -> candidates = findByText(value);
+            case "class" -> candidates = findByClass(value);
+            default -> candidates = nodes.stream().filter(node -> value.equals(node.attribute(attribute))).toList();
+        }
+        return "*".equals(tag) ? candidates : candidates.stream().filter(node -> node.className().equals(tag)).toList();
+    }
+
+    private synchronized List<Node> evaluateXPath(String xpath) {
+        try {
+            if (document == null) {
+                buildDocument();
+            }
+            NodeList matches = (NodeList) XPathFactory.newInstance().newXPath().evaluate(xpath, document, XPathConstants.NODESET);
+            List<Node> result = new ArrayList<>(matches.getLength());
+            for (int i = 0; i < matches.getLength(); i++) {
+                if (matches.item(i) instanceof Element element && domNodes.containsKey(element)) {
+                    result.add(domNodes.get(element));
+                }
+            }
+            return result;
+        } catch (XPathExpressionException e) {
+            throw new IllegalArgumentException("Invalid XPath: " + xpath, e);
+        }
+    }
+
+    /**
+     * Builds the DOM used for full XPath and maps its elements to snapshot nodes by document order.
+     */
+    private void buildDocument() {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(pageSource)));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to build DOM for XPath evaluation", e);
+        }
+        domNodes = new IdentityHashMap<>();
+        NodeList elements = document.getElementsByTagName("*");
+        for (int i = 0; i < elements.getLength() && i < nodes.size(); i++) {
+            domNodes.put((Element) elements.item(i), nodes.get(i));
+        }
+    }
+
+    private static void index(Map<String, List<Node>> index, String key, Node node) {
+        index.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+    }
+
+    private static void closeQuietly(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                logger.debug("Failed to close page source reader: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One element of the hierarchy. The common UiAutomator2 attributes are fields; the rest stay in {@code attributes}.
+     */
+    public record Node(int index, int parent, int depth, String className, String resourceId, String text,
+                       String contentDesc, Rectangle bounds, boolean displayed, boolean enabled,
+                       Map<String, String> attributes) {
+
+        private static Node from(XMLStreamReader reader, int index, int parent, int depth) {
+            Map<String, String> attributes = new LinkedHashMap<>();
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            }
+            String className = attributes.getOrDefault("class", reader.getLocalName());
+            return new Node(index, parent, depth, className,
+                    attributes.getOrDefault("resource-id", ""),
+                    attributes.getOrDefault("text", ""),
+                    attributes.getOrDefault("content-desc", ""),
+                    parseBounds(attributes.get("bounds")),
+                    !"false".equals(attributes.get("displayed")),
+                    !"false".equals(attributes.get("enabled")),
+                    Collections.unmodifiableMap(attributes));
+        }
+
+        public String attribute(String name) {
+            return attributes.get(name);
+        }
+
+        /**
+         * @return true if the node is displayed and has a non-empty area on screen
+         */
+        public boolean isVisible() {
+            return displayed && (bounds == null || (bounds.getWidth() > 0 && bounds.getHeight() > 0));
+        }
+
+        /**
+         * @param bounds UiAutomator2 bounds, e.g. "[0,72][1080,200]"
+         * @return the rectangle, or null if the attribute is missing or malformed
+         */
+        static Rectangle parseBounds(String bounds) {
+            if (bounds == null) {
+                return null;
+            }
+            String[] parts = bounds.replace("][", ",").replace("[", "").replace("]", "").split(",");
+            if (parts.length != 4) {
+                return null;
+            }
+            try {
+                int x1 = Integer.parseInt(parts[0].trim());
+                int y1 = Integer.parseInt(parts[1].trim());
+                int x2 = Integer.parseInt(parts[2].trim());
+                int y2 = Integer.parseInt(parts[3].trim());
+                return new Rectangle(x1, y1, y2 - y1, x2 - x1);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts for wall time spent idle: deliberate sleeps and the time waits spend sleeping between polls.
+ * Time is attributed to the scenario and step running on the current thread, which the
+ * {@code listeners.IdleBudgetPlugin} Cucumber plugin keeps up to date; anything else is booked as
+ * "(outside scenario)".
+ * <p>
+ * Budgets cover sleeps and wait idle time together and are off when 0:
+ * {@code sleep.budget.scenario.millis} and {@code sleep.budget.step.millis}. With
+ * {@code sleep.budget.mode=fail} the step that goes over budget fails with {@link IdleBudgetExceededException};
+ * the default {@code warn} only logs. Disable accounting with {@code sleep.budget.enabled=false}.
+ */
+public final class IdleBudget {
+
+    private static final Logger logger = LogManager.getLogger(IdleBudget.class);
+
+    public enum Kind { SLEEP, WAIT }
+
+    private static final boolean ENABLED = ConfigReader.getInstance().getBoolean("sleep.budget.enabled", true);
+    private static final long SCENARIO_BUDGET_MILLIS = ConfigReader.getInstance().getLong("sleep.budget.scenario.millis", 0);
+    private static final long STEP_BUDGET_MILLIS = ConfigReader.getInstance().getLong("sleep.budget.step.millis", 0);
+    private static final boolean FAIL = "fail".equalsIgnoreCase(ConfigReader.getInstance().getProperty("sleep.budget.mode", "warn"));
+    private static final int SUMMARY_TOP = ConfigReader.getInstance().getInt("sleep.budget.summary.top", 10);
+
+    private static final String OUTSIDE = "(outside scenario)";
+
+    private static final ThreadLocal<Ledger> current = new ThreadLocal<>();
+
+    private static final Map<String, Totals> bySource = new ConcurrentHashMap<>();
+    private static final Map<String, Totals> byStep = new ConcurrentHashMap<>();
+    private static final Map<String, Totals> byScenario = new ConcurrentHashMap<>();
+
+    private IdleBudget() {
+    }
+
+    /**
+     * Sleeps and books the time as a deliberate sleep.
+     *
+     * @param source where the sleep happens, e.g. "WaitUtils.executionDelay"
+     */
+    public static void sleep(String source, long millis) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        try {
+            Thread.sleep(millis);
+        } finally {
+            record(Kind.SLEEP, source, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Books idle time against the current scenario and step, and enforces the budgets.
+     *
+     * @throws IdleBudgetExceededException in fail mode, when this booking takes the step or scenario over budget
+     */
+    public static void record(Kind kind, String source, long millis) {
+        if (!ENABLED || millis <= 0) {
+            return;
+        }
+        Ledger ledger = current.get();
+        String scenario = ledger == null ? OUTSIDE : ledger.scenario;
+        String step = ledger == null || ledger.step == null ? OUTSIDE : ledger.step;
+
+        bySource.computeIfAbsent(source, key -> new Totals()).add(kind, millis);
+        byStep.computeIfAbsent(step, key -> new Totals()).add(kind, millis);
+        byScenario.computeIfAbsent(scenario, key -> new Totals()).add(kind, millis);
+
+        if (ledger != null) {
+            ledger.add(kind, millis);
+            ledger.enforce();
+        }
+    }
+
+    public static void startScenario(String name) {
+        current.set(new Ledger(name));
+    }
+
+    public static void startStep(String text) {
+        Ledger ledger = current.get();
+        if (ledger != null) {
+            ledger.step = text;
+            ledger.stepMillis = 0;
+            ledger.stepOverBudget = false;
+        }
+    }
+
+    public static void endStep() {
+        Ledger ledger = current.get();
+        if (ledger != null) {
+            ledger.step = null;
+        }
+    }
+
+    /**
+     * @return the idle time of the scenario running on this thread, or null outside a scenario
+     */
+    public static String describeScenario() {
+        Ledger ledger = current.get();
+        if (ledger == null) {
+            return null;
+        }
+        return String.format("Idle time: %d ms sleeping, %d ms waiting between polls (scenario budget: %s)",
+                ledger.sleepMillis, ledger.waitMillis, budgetText(SCENARIO_BUDGET_MILLIS));
+    }
+
+    public static void endScenario() {
+        Ledger ledger = current.get();
+        if (ledger != null) {
+            logger.info("Scenario '{}' idle time - sleeps: {} ms, waits: {} ms.", ledger.scenario, ledger.sleepMillis, ledger.waitMillis);
+        }
+        current.remove();
+    }
+
+    /**
+     * Logs the biggest idle-time offenders by source, step and scenario. Called once after all scenarios.
+     */
+    public static void logSummary() {
+        if (!ENABLED) {
+            return;
+        }
+        logger.info("Idle budget summary - mode: {}, scenario budget: {}, step budget: {}",
+                FAIL ? "fail" : "warn", budgetText(SCENARIO_BUDGET_MILLIS), budgetText(STEP_BUDGET_MILLIS));
+        logRanking("source", bySource);
+        logRanking("step", byStep);
+        logRanking("scenario", byScenario);
+    }
+
+    private static void logRanking(String dimension, Map<String, Totals> totals) {
+        totals.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Totals> entry) -> entry.getValue().total()).reversed())
+                .limit(SUMMARY_TOP)
+                .forEach(entry -> logger.info("  idle by {}: {} ms (sleeps {} ms, waits {} ms) - {}", dimension,
+                        entry.getValue().total(), entry.getValue().sleepMillis.get(), entry.getValue().waitMillis.get(), entry.getKey()));
+    }
+
+    private static String budgetText(long millis) {
+        return millis > 0 ? millis + " ms" : "none";
+    }
+
+    private static final class Ledger {
+
+        private final String scenario;
+        private String step;
+        private long sleepMillis;
+        private long waitMillis;
+        private long stepMillis;
+        private boolean stepOverBudget;
+        private boolean scenarioOverBudget;
+
+        private Ledger(String scenario) {
+            this.scenario = scenario;
+        }
+
+        private void add(Kind kind, long millis) {
+            if (kind == Kind.SLEEP) {
+                sleepMillis += millis;
+            } else {
+                waitMillis += millis;
+            }
+            stepMillis += millis;
+        }
+
+        private void enforce() {
+            if (STEP_BUDGET_MILLIS > 0 && !stepOverBudget && stepMillis > STEP_BUDGET_MILLIS) {
+                stepOverBudget = true;
+                exceeded("Step '" + step + "' idled " + stepMillis + " ms, over its budget of " + STEP_BUDGET_MILLIS + " ms.");
+            }
+            long scenarioMillis = sleepMillis + waitMillis;
+            if (SCENARIO_BUDGET_MILLIS > 0 && !scenarioOverBudget && scenarioMillis > SCENARIO_BUDGET_MILLIS) {
+                scenarioOverBudget = true;
+                exceeded("Scenario '" + scenario + "' idled " + scenarioMillis + " ms, over its budget of " + SCENARIO_BUDGET_MILLIS + " ms.");
+            }
+        }
+
+        private static void exceeded(String message) {
+            if (FAIL) {
+                throw new IdleBudgetExceededException(message);
+            }
+            logger.warn(message);
+        }
+    }
+
+    private static final class Totals {
+
+        private final AtomicLong sleepMillis = new AtomicLong();
+        private final AtomicLong waitMillis = new AtomicLong();
+
+        private void add(Kind kind, long millis) {
+            (kind == Kind.SLEEP ? sleepMillis : waitMillis).addAndGet(millis);
+        }
+
+        private long total() {
+            return sleepMillis.get() + waitMillis.get();
+        }
+    }
+}
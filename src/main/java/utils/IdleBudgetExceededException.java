@@ -0,0 +1,14 @@
+package utils;
+
+/**
+ * Thrown when a step or scenario spends more time idle than its configured budget
+ * and {@code sleep.budget.mode=fail}.
+ */
+public class IdleBudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdleBudgetExceededException(String message) {
+        super(message);
+    }
+}
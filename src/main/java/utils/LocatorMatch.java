@@ -0,0 +1,10 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Result of a multi-locator wait: which locator matched and the element it found.
+ */
+public record LocatorMatch(By locator, WebElement element) {
+}
@@ -0,0 +1,198 @@
+package utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Remembers how long each locator took to appear, per device and app build, across runs.
+ * Samples are kept in a small JSON file ({@code locator.profile.store}, default
+ * test-output-result/locator-profiles/locator-profiles.json) that is read at start-up and rewritten after the run.
+ * <p>
+ * {@link WaitUtils} uses the stored p95 of a locator to pick its first poll interval and to log an early
+ * warning when a wait runs past {@code locator.profile.warn.factor} times that p95. After the run, locators
+ * whose p95 grew by more than {@code locator.profile.regression.factor} against previous runs are reported.
+ * The device and build come from the "device" and "build" log context set when the session starts.
+ * Keys that cannot match across runs (identity hashes such as {@code @1b6d3586}, lambda class names) are
+ * neither recorded nor loaded.
+ */
+public final class LocatorProfileStore {
+
+    private static final Logger logger = LogManager.getLogger(LocatorProfileStore.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    // Parts of a toString() that differ on every run; the hash follows a class name, XPath attributes do not
+    private static final Pattern UNSTABLE_KEY = Pattern.compile("\\$\\$Lambda|(?<=[\\w$])@\\p{XDigit}+\\b");
+
+    private static volatile LocatorProfileStore instance;
+
+    private final File storeFile;
+    private final int maxSamples;
+    private final double warnFactor;
+    private final double regressionFactor;
+    private final long regressionMinDeltaMillis;
+
+    /** scope ("device|build") -> locator key -> samples from earlier runs, oldest first */
+    private final Map<String, Map<String, List<Long>>> history = new ConcurrentHashMap<>();
+    /** scope -> locator key -> samples from this run */
+    private final Map<String, Map<String, List<Long>>> current = new ConcurrentHashMap<>();
+
+    private LocatorProfileStore() {
+        ConfigReader config = ConfigReader.getInstance();
+        this.storeFile = new File(config.getProperty("locator.profile.store",
+                "test-output-result/locator-profiles/locator-profiles.json"));
+        this.maxSamples = config.getInt("locator.profile.max.samples", 50);
+        this.warnFactor = config.getDouble("locator.profile.warn.factor", 2.0);
+        this.regressionFactor = config.getDouble("locator.profile.regression.factor", 1.5);
+        this.regressionMinDeltaMillis = config.getLong("locator.profile.regression.min.delta.millis", 250);
+        load();
+    }
+
+    public static LocatorProfileStore getInstance() {
+        if (instance == null) {
+            synchronized (LocatorProfileStore.class) {
+                if (instance == null) {
+                    instance = new LocatorProfileStore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return the p95 appearance time from earlier runs on the current device and build, or -1 if unknown
+     */
+    public long getLearnedP95Millis(String locatorKey) {
+        List<Long> samples = history.getOrDefault(currentScope(), Map.of()).get(locatorKey);
+        return samples == null || samples.isEmpty() ? -1 : percentile(samples, 95);
+    }
+
+    /**
+     * @return how long a wait may run before an early warning is logged, or -1 if the locator has no profile yet
+     */
+    public long getWarnThresholdMillis(String locatorKey) {
+        long p95 = getLearnedP95Millis(locatorKey);
+        return p95 < 0 ? -1 : Math.round(p95 * warnFactor);
+    }
+
+    /**
+     * Records how long the locator took to appear in this run.
+     */
+    public void record(String locatorKey, long appearanceMillis) {
+        if (!isStable(locatorKey)) {
+            logger.debug("Not profiling unstable key: {}", locatorKey);
+            return;
+        }
+        current.computeIfAbsent(currentScope(), key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(locatorKey, key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(appearanceMillis);
+    }
+
+    /**
+     * Logs locators whose p95 regressed against earlier runs, then merges this run into the store and saves it.
+     * Called once after all scenarios.
+     */
+    public synchronized void logSummaryAndSave() {
+        int profiled = 0;
+        List<String> regressions = new ArrayList<>();
+
+        for (Map.Entry<String, Map<String, List<Long>>> scope : new TreeMap<>(current).entrySet()) {
+            for (Map.Entry<String, List<Long>> locator : new TreeMap<>(scope.getValue()).entrySet()) {
+                profiled++;
+                List<Long> runSamples;
+                synchronized (locator.getValue()) {
+                    runSamples = new ArrayList<>(locator.getValue());
+                }
+                List<Long> previous = history.getOrDefault(scope.getKey(), Map.of()).get(locator.getKey());
+                if (previous != null && !previous.isEmpty()) {
+                    long before = percentile(previous, 95);
+                    long now = percentile(runSamples, 95);
+                    if (now > before * regressionFactor && now - before >= regressionMinDeltaMillis) {
+                        regressions.add(String.format("[%s] %s - p95 %d ms -> %d ms", scope.getKey(), locator.getKey(), before, now));
+                    }
+                }
+                merge(scope.getKey(), locator.getKey(), runSamples);
+            }
+        }
+
+        logger.info("Locator profile summary - locators profiled this run: {}, regressions: {}", profiled, regressions.size());
+        regressions.forEach(regression -> logger.warn("Locator appearance regression {}", regression));
+        save();
+        current.clear();
+    }
+
+    static long percentile(List<Long> samples, int percentile) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private void merge(String scope, String locatorKey, List<Long> runSamples) {
+        List<Long> merged = history.computeIfAbsent(scope, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(locatorKey, key -> new ArrayList<>());
+        merged.addAll(runSamples);
+        if (merged.size() > maxSamples) {
+            merged.subList(0, merged.size() - maxSamples).clear();
+        }
+    }
+
+    private void load() {
+        if (!storeFile.exists()) {
+            logger.info("No locator profile store at {}; profiles will be learned during this run.", storeFile.getPath());
+            return;
+        }
+        try {
+            Map<String, Map<String, List<Long>>> stored = mapper.readValue(storeFile, new TypeReference<>() {
+            });
+            stored.forEach((scope, locators) -> {
+                Map<String, List<Long>> stable = new ConcurrentHashMap<>(locators);
+                stable.keySet().removeIf(key -> !isStable(key));
+                history.put(scope, stable);
+            });
+            logger.info("Loaded locator profiles for {} device/build combination(s) from {}", stored.size(), storeFile.getPath());
+        } catch (Exception e) {
+            logger.warn("Could not read locator profile store {}; starting fresh. Reason: {}", storeFile.getPath(), e.getMessage());
+        }
+    }
+
+    private void save() {
+        try {
+            File parent = storeFile.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                logger.error("Failed to create folder for locator profile store: {}", parent.getAbsolutePath());
+                return;
+            }
+            mapper.writeValue(storeFile, new TreeMap<>(history));
+            logger.info("Locator profiles saved to {}", storeFile.getPath());
+        } catch (Exception e) {
+            logger.error("Failed to save locator profile store {}", storeFile.getPath(), e);
+        }
+    }
+
+    /**
+     * @return true if the key is derived from a locator and can match the same wait in a later run
+     */
+    static boolean isStable(String locatorKey) {
+        return locatorKey != null && !UNSTABLE_KEY.matcher(locatorKey).find();
+    }
+
+    private static String currentScope() {
+        String device = ThreadContext.get("device");
+        String build = ThreadContext.get("build");
+        return (device == null ? "unknown-device" : device) + "|" + (build == null ? "unknown-build" : build);
+    }
+}
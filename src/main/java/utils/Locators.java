@@ -0,0 +1,91 @@
+package utils;
+
+import org.openqa.selenium.By;
+
+/**
+ * Reads the strategy and value out of a locator and translates it into XPath over the UiAutomator2
+ * page source, so it can be checked against a fetched hierarchy instead of one findElement call each,
+ * or into a UiSelector for device-side scrolling.
+ */
+final class Locators {
+
+    private Locators() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @return the strategy name, e.g. "id", "xpath", "accessibilityId", or null if the locator has no "strategy: value" form
+     */
+    static String strategy(By locator) {
+        String description = locator.toString();
+        int separator = description.indexOf(": ");
+        return separator < 0 ? null : description.substring(description.indexOf('.') + 1, separator);
+    }
+
+    static String value(By locator) {
+        String description = locator.toString();
+        int separator = description.indexOf(": ");
+        return separator < 0 ? null : description.substring(separator + 2);
+    }
+
+    /**
+     * @return an XPath equivalent of the locator, or null for strategies that only the device can evaluate
+     *         (e.g. androidUIAutomator)
+     */
+    static String toXPath(By locator) {
+        String strategy = strategy(locator);
+        if (strategy == null) {
+            return null;
+        }
+        String value = value(locator);
+
+        return switch (strategy) {
+            case "xpath" -> value;
+            case "id" -> value.contains(":id/")
+                    ? "//*[@resource-id=" + literal(value) + "]"
+                    : "//*[@resource-id=" + literal(value) + " or substring-after(@resource-id, ':id/')=" + literal(value) + "]";
+            case "accessibilityId" -> "//*[@content-desc=" + literal(value) + "]";
+            case "className" -> "//*[@class=" + literal(value) + "]";
+            default -> null;
+        };
+    }
+
+    /**
+     * @return a UiSelector expression equivalent to the locator, for UiAutomator2's {@code mobile: scroll},
+     *         or null for strategies UiSelector cannot express (e.g. xpath)
+     */
+    static String toUiSelector(By locator) {
+        String strategy = strategy(locator);
+        if (strategy == null) {
+            return null;
+        }
+        String value = value(locator);
+
+        return switch (strategy) {
+            case "androidUIAutomator" -> value;
+            case "id" -> value.contains(":id/")
+                    ? "new UiSelector().resourceId(" + javaLiteral(value) + ")"
+                    : "new UiSelector().resourceIdMatches(" + javaLiteral(".*:id/" + value) + ")";
+            case "accessibilityId" -> "new UiSelector().description(" + javaLiteral(value) + ")";
+            case "className" -> "new UiSelector().className(" + javaLiteral(value) + ")";
+            default -> null;
+        };
+    }
+
+    private static String javaLiteral(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Quotes a value as an XPath string literal, using concat() when it contains both quote kinds.
+     */
+    static String literal(String value) {
+        if (!value.contains("'")) {
+            return "'" + value + "'";
+        }
+        if (!value.contains("\"")) {
+            return "\"" + value + "\"";
+        }
+        return "concat('" + value.replace("'", "', \"'\", '") + "')";
+    }
+}
@@ -1,21 +1,23 @@
 package utils;
 
 import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.remote.SupportsRotation;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Dimension;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.ScreenOrientation;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.interactions.Pause;
-import org.openqa.selenium.interactions.PointerInput;
-import org.openqa.selenium.interactions.Sequence;
-
-import java.time.Duration;
-import java.util.List;
+import utils.gestures.GestureComposer;
+import utils.gestures.NativeGestures;
+import utils.locators.ElementCache;
 
 /**
  * Provides reusable mobile actions such as tap, scroll, sendKeys, etc.
- * Uses W3C actions and supports Android. Compatible with Appium Java Client v8+.
+ * Gestures use UiAutomator2 native commands or W3C actions, as chosen by {@code gesture.backend}.
+ * Supports Android. Compatible with Appium Java Client v8+.
  */
 public class MobileActions {
 
@@ -83,27 +85,37 @@ public class MobileActions {
         }
     }
 
+    /** --------------------------- Hierarchy Snapshot --------------------------- **/
+
+    /**
+     * Takes one page-source snapshot for validating many elements locally.
+     * Use it for presence checks and reads; interact through the driver.
+     */
+    public HierarchySnapshot snapshot() {
+        return HierarchySnapshot.capture(driver);
+    }
+
+    /** --------------------------- Gestures --------------------------- **/
+
+    /**
+     * Starts a composite gesture; chain steps and send them in one round trip with {@code perform()}.
+     * Composite gestures always use W3C actions.
+     */
+    public GestureComposer gestures() {
+        return GestureComposer.on(driver);
+    }
+
     /** --------------------------- Gesture: Tap Anywhere --------------------------- **/
 
     /**
-     * Tap anywhere on screen using W3C PointerInput. Useful for dismissing overlays.
+     * Tap anywhere on screen; uses clickGesture on UiAutomator2 unless {@code gesture.backend=w3c}.
+     * Useful for dismissing overlays.
      * @param x X-coordinate
      * @param y Y-coordinate
      */
     public void tapOnCoordinates(int x, int y) {
-        try {
-            PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
-            Sequence tap = new Sequence(finger, 0);
-            tap.addAction(finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), x, y));
-            tap.addAction(finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
-            tap.addAction(new Pause(finger, Duration.ofMillis(100)));
-            tap.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
-
-            driver.perform(List.of(tap));
-            logger.info("Tapped on screen at coordinates ({}, {})", x, y);
-        } catch (Exception e) {
-            logger.error("Failed to tap on coordinates ({}, {}): {}", x, y, e.getMessage(), e);
-            throw e;
+        if (!NativeGestures.click(driver, x, y)) {
+            gestures().tap(x, y).perform();
         }
     }
 
@@ -111,47 +123,120 @@ public class MobileActions {
      * Tap center of screen (used to dismiss black overlay)
      */
     public void tapCenterOfScreen() {
-        Dimension size = driver.manage().window().getSize();
-        int x = size.width / 2;
-        int y = size.height / 2;
-        tapOnCoordinates(x, y);
+        Dimension size = DeviceProfile.of(driver).viewport();
+        tapOnCoordinates(size.width / 2, size.height / 2);
+    }
+
+    /** --------------------------- Orientation --------------------------- **/
+
+    /**
+     * Rotates the device and refreshes the session's {@link DeviceProfile} geometry.
+     */
+    public void rotate(ScreenOrientation orientation) {
+        if (!(driver instanceof SupportsRotation rotatable)) {
+            throw new UnsupportedOperationException("Driver does not support rotation: " + driver.getClass().getSimpleName());
+        }
+        rotatable.rotate(orientation);
+        DeviceProfile.refreshGeometry(driver);
+        ElementCache.forContext(driver).invalidate("rotation");
+        logger.info("Rotated device to {}.", orientation);
     }
 
     /** --------------------------- Gesture: Scroll/Swipe --------------------------- **/
 
     public void scrollByCoordinates(int startX, int startY, int endX, int endY, int durationInMs) {
-        try {
-            PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
-            Sequence swipe = new Sequence(finger, 0);
+        gestures().swipe(startX, startY, endX, endY, durationInMs).perform();
+    }
 
-            swipe.addAction(finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), startX, startY));
-            swipe.addAction(finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
-            swipe.addAction(finger.createPointerMove(Duration.ofMillis(durationInMs), PointerInput.Origin.viewport(), endX, endY));
-            swipe.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+    public void scrollDown(int distancePixels) {
+        if (!NativeGestures.scroll(driver, scrollArea(), "down", scrollPercent(distancePixels))) {
+            gestures().scrollDown(distancePixels).perform();
+        }
+    }
 
-            driver.perform(List.of(swipe));
-            logger.info("Swipe performed from ({}, {}) to ({}, {})", startX, startY, endX, endY);
-        } catch (Exception e) {
-            logger.error("Scroll failed: {}", e.getMessage(), e);
-            throw e;
+    public void scrollUp(int distancePixels) {
+        if (!NativeGestures.scroll(driver, scrollArea(), "up", scrollPercent(distancePixels))) {
+            gestures().scrollUp(distancePixels).perform();
         }
     }
 
-    public void scrollDown(int distancePixels) {
-        Dimension size = driver.manage().window().getSize();
-        int startX = size.width / 2;
-        int startY = (int) (size.height * 0.8);
-        int endY = startY - distancePixels;
+    /**
+     * Swipes across the middle of the screen; uses swipeGesture on UiAutomator2 unless {@code gesture.backend=w3c}.
+     *
+     * @param direction direction the finger moves: up, down, left or right
+     * @param percent   swipe length as a fraction of the middle 60% of the screen
+     */
+    public void swipe(String direction, double percent) {
+        Rectangle area = scrollArea();
+        if (NativeGestures.swipe(driver, area, direction, percent)) {
+            return;
+        }
+        int centerX = area.getX() + area.getWidth() / 2;
+        int centerY = area.getY() + area.getHeight() / 2;
+        int bottom = area.getY() + area.getHeight();
+        int right = area.getX() + area.getWidth();
+        int dx = (int) (area.getWidth() * percent);
+        int dy = (int) (area.getHeight() * percent);
+        switch (direction.toLowerCase()) {
+            case "up" -> scrollByCoordinates(centerX, bottom, centerX, bottom - dy, 200);
+            case "down" -> scrollByCoordinates(centerX, area.getY(), centerX, area.getY() + dy, 200);
+            case "left" -> scrollByCoordinates(right, centerY, right - dx, centerY, 200);
+            case "right" -> scrollByCoordinates(area.getX(), centerY, area.getX() + dx, centerY, 200);
+            default -> throw new IllegalArgumentException("Unsupported swipe direction: " + direction);
+        }
+    }
 
-        scrollByCoordinates(startX, startY, startX, endY, 500);
+    /**
+     * Scrolls down until the element is visible. On UiAutomator2 the device scrolls and matches on its own
+     * ({@code mobile: scroll}), and a miss there is final; otherwise each swipe is followed by one hierarchy snapshot.
+     *
+     * @param maxSwipes swipes to try before giving up
+     * @return the visible element
+     * @throws NoSuchElementException if the element is not visible after {@code maxSwipes} swipes
+     */
+    public WebElement scrollUntilVisible(By locator, int maxSwipes) {
+        String uiSelector = Locators.toUiSelector(locator);
+        if (uiSelector != null && NativeGestures.scrollTo(driver, uiSelector, maxSwipes)) {
+            WebElement element = driver.findElement(locator);
+            logger.info("Scrolled to element: {}", locator);
+            return element;
+        }
+
+        int distance = DeviceProfile.of(driver).viewport().height / 2;
+        for (int swipe = 0; ; swipe++) {
+            WebElement element = findVisible(locator);
+            if (element != null) {
+                logger.info("Element {} visible after {} swipe(s).", locator, swipe);
+                return element;
+            }
+            if (swipe >= maxSwipes) {
+                throw new NoSuchElementException("Element " + locator + " not visible after " + maxSwipes + " swipe(s).");
+            }
+            gestures().scrollDown(distance).perform();
+        }
     }
 
-    public void scrollUp(int distancePixels) {
-        Dimension size = driver.manage().window().getSize();
-        int startX = size.width / 2;
-        int startY = (int) (size.height * 0.2);
-        int endY = startY + distancePixels;
+    private WebElement findVisible(By locator) {
+        if (HierarchySnapshot.isSupported(locator) && !snapshot().isDisplayed(locator)) {
+            return null;
+        }
+        for (WebElement element : driver.findElements(locator)) {
+            if (element.isDisplayed()) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Middle 60% of the screen height, where the W3C scroll helpers start and end their swipes.
+     */
+    private Rectangle scrollArea() {
+        Dimension size = DeviceProfile.of(driver).viewport();
+        return new Rectangle(0, (int) (size.height * 0.2), (int) (size.height * 0.6), size.width);
+    }
 
-        scrollByCoordinates(startX, startY, startX, endY, 500);
+    private double scrollPercent(int distancePixels) {
+        return (double) distancePixels / scrollArea().getHeight();
     }
 }
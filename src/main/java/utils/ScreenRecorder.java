@@ -0,0 +1,165 @@
+package utils;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.android.AndroidStartScreenRecordingOptions;
+import io.appium.java_client.screenrecording.CanRecordScreen;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the screen for the length of a scenario with Appium's startRecordingScreen/stopRecordingScreen.
+ * Only a video that is kept is stopped and downloaded, on the test thread since the session goes back to the
+ * pool right after; decoding, writing and trimming it happen on a background writer. A video that is not kept
+ * is left running and discarded by the forced restart of the next recording, or by the server when the
+ * session ends.
+ * <p>
+ * {@code recording.policy}: {@code failed} (default) keeps videos of failed scenarios only, {@code always}
+ * keeps every video, {@code off} never records. {@code recording.time.limit.seconds} (default 1800, the
+ * UiAutomator2 maximum; above 180 the server joins the device's chunks with ffmpeg) caps the recording.
+ * With {@code recording.trim.last.seconds} above 0, kept videos are cut to their last seconds with ffmpeg
+ * ({@code recording.ffmpeg.path}, default "ffmpeg"); the full video is kept if ffmpeg fails.
+ */
+public final class ScreenRecorder {
+
+    private static final Logger logger = LogManager.getLogger(ScreenRecorder.class);
+
+    private static final String RECORDING_DIR =
+            System.getProperty("user.dir") + "/test-output-result/recordings/";
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("dd-MMM-yy_HH-mm-ss");
+
+    private static final String POLICY = ConfigReader.getInstance().getProperty("recording.policy", "failed").trim().toLowerCase();
+    private static final long TIME_LIMIT_SECONDS = ConfigReader.getInstance().getLong("recording.time.limit.seconds", 1800);
+    private static final long TRIM_LAST_SECONDS = ConfigReader.getInstance().getLong("recording.trim.last.seconds", 0);
+    private static final String FFMPEG = ConfigReader.getInstance().getProperty("recording.ffmpeg.path", "ffmpeg");
+
+    private static final ExecutorService writer = BackgroundExecutors.newBoundedExecutor("recording-writer", 1, 4);
+
+    // Recording started for the scenario running on this thread
+    private static final ThreadLocal<String> currentScenario = new ThreadLocal<>();
+
+    private ScreenRecorder() {
+        // Prevent instantiation
+    }
+
+    public static boolean isEnabled() {
+        return !"off".equals(POLICY);
+    }
+
+    /**
+     * Starts recording for a scenario. Failures are logged; the scenario runs without a video.
+     */
+    public static void start(AppiumDriver driver, String scenarioName) {
+        if (!isEnabled() || !(driver instanceof CanRecordScreen recorder)) {
+            return;
+        }
+        try {
+            recorder.startRecordingScreen(new AndroidStartScreenRecordingOptions()
+                    .withTimeLimit(Duration.ofSeconds(TIME_LIMIT_SECONDS))
+                    .enableForcedRestart());
+            currentScenario.set(scenarioName);
+            logger.info("Screen recording started for scenario: {}", scenarioName);
+        } catch (Exception e) {
+            logger.warn("Could not start screen recording: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ends the recording of this thread's scenario. If the policy keeps it, stops it and writes the video
+     * in the background; otherwise leaves it to be discarded without downloading it.
+     *
+     * @param failed whether the scenario failed
+     * @return path the video is written to, or null when nothing is kept
+     */
+    public static Path stop(AppiumDriver driver, boolean failed) {
+        String scenarioName = currentScenario.get();
+        currentScenario.remove();
+        if (scenarioName == null || !(driver instanceof CanRecordScreen recorder)) {
+            return null;
+        }
+        if (!failed && !"always".equals(POLICY)) {
+            // Stopping would download the whole video only to drop it; the next start restarts the recording
+            logger.debug("Scenario passed; discarding screen recording.");
+            return null;
+        }
+        String base64;
+        try {
+            base64 = recorder.stopRecordingScreen();
+        } catch (Exception e) {
+            logger.warn("Could not stop screen recording: {}", e.getMessage());
+            return null;
+        }
+
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        Path videoPath = Paths.get(RECORDING_DIR, timestamp + "_" + scenarioName.replaceAll("[^A-Za-z0-9._-]", "_") + ".mp4")
+                .toAbsolutePath();
+        writer.submit(() -> write(base64, videoPath));
+        return videoPath;
+    }
+
+    /**
+     * Waits for queued videos to be written. Called once after all scenarios.
+     */
+    public static void awaitWrites(long timeoutSeconds) {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                logger.warn("Screen recordings still being written after {} seconds.", timeoutSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void write(String base64, Path videoPath) {
+        try {
+            Files.createDirectories(videoPath.getParent());
+            if (TRIM_LAST_SECONDS <= 0) {
+                Files.write(videoPath, Base64.getMimeDecoder().decode(base64));
+            } else {
+                Path raw = videoPath.resolveSibling(videoPath.getFileName() + ".full.mp4");
+                Files.write(raw, Base64.getMimeDecoder().decode(base64));
+                trim(raw, videoPath);
+            }
+            logger.info("Screen recording saved at: {}", videoPath);
+        } catch (IOException e) {
+            logger.error("Failed to save screen recording due to IO error: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Keeps the last {@code recording.trim.last.seconds} of the video, copying streams without re-encoding.
+     */
+    private static void trim(Path raw, Path videoPath) throws IOException {
+        try {
+            Process ffmpeg = new ProcessBuilder(FFMPEG, "-y", "-loglevel", "error",
+                    "-sseof", "-" + TRIM_LAST_SECONDS, "-i", raw.toString(), "-c", "copy", videoPath.toString())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (ffmpeg.waitFor(60, TimeUnit.SECONDS) && ffmpeg.exitValue() == 0) {
+                Files.delete(raw);
+                return;
+            }
+            ffmpeg.destroyForcibly();
+            logger.warn("ffmpeg could not trim {}; keeping the full recording.", raw);
+        } catch (IOException e) {
+            logger.warn("ffmpeg not available ({}); keeping the full recording.", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Files.move(raw, videoPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
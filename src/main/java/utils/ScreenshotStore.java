@@ -0,0 +1,229 @@
+package utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed storage for screenshots. Each distinct frame is written once as
+ * {@code blobs/<sha256>.png} under the screenshot directory; the per-capture file is a hard link to it,
+ * so existing paths keep working without storing the bytes again. Only byte-identical frames share a blob;
+ * {@code screenshot.dedup.enabled=false} stores every capture as its own file.
+ * <p>
+ * With {@code screenshot.dedup.perceptual=true}, frames whose difference hash (dHash) is within
+ * {@code screenshot.dedup.max.distance} bits (default 1 of 64) of one of the last {@code screenshot.dedup.window}
+ * frames (default 64) are marked as near-duplicates in the manifest. They are still stored as captured, since
+ * a near-identical frame can differ exactly where the failure is. {@code manifest.json} maps each capture
+ * to its blob and, when marked, the blob it nearly duplicates.
+ */
+public final class ScreenshotStore {
+
+    private static final Logger logger = LogManager.getLogger(ScreenshotStore.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final boolean ENABLED = ConfigReader.getInstance().getBoolean("screenshot.dedup.enabled", true);
+    private static final boolean PERCEPTUAL = ConfigReader.getInstance().getBoolean("screenshot.dedup.perceptual", false);
+    private static final int MAX_DISTANCE = ConfigReader.getInstance().getInt("screenshot.dedup.max.distance", 1);
+    private static final int WINDOW = ConfigReader.getInstance().getInt("screenshot.dedup.window", 64);
+
+    private static final Map<Path, ScreenshotStore> stores = new ConcurrentHashMap<>();
+
+    /**
+     * One capture in the manifest.
+     *
+     * @param blob            blob file name under blobs/
+     * @param dHash           difference hash of the frame, hex; null when not computed
+     * @param nearDuplicateOf blob of an earlier frame this one nearly duplicates; null when none was found
+     * @param distance        dHash distance to that frame, 0 when none was found
+     */
+    public record Entry(String blob, String dHash, String nearDuplicateOf, int distance) {
+    }
+
+    private record Frame(String blob, long dHash) {
+    }
+
+    private final Path directory;
+    private final Path blobDirectory;
+    private final File manifestFile;
+    private final Map<String, Entry> manifest = new ConcurrentHashMap<>();
+    private final Deque<Frame> recentFrames = new ArrayDeque<>();
+
+    private final AtomicLong captures = new AtomicLong();
+    private final AtomicLong blobsWritten = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong nearDuplicates = new AtomicLong();
+
+    private ScreenshotStore(Path directory) {
+        this.directory = directory;
+        this.blobDirectory = directory.resolve("blobs");
+        this.manifestFile = directory.resolve("manifest.json").toFile();
+        load();
+    }
+
+    /**
+     * @return the store for a screenshot directory, created on first use
+     */
+    public static ScreenshotStore forDirectory(Path directory) {
+        return stores.computeIfAbsent(directory.toAbsolutePath().normalize(), ScreenshotStore::new);
+    }
+
+    /**
+     * Stores a decoded PNG as {@code capturePath}, reusing an identical blob when there is one.
+     */
+    public void store(byte[] png, Path capturePath) throws IOException {
+        Files.createDirectories(capturePath.getParent());
+        if (!ENABLED) {
+            Files.write(capturePath, png);
+            return;
+        }
+        captures.incrementAndGet();
+        String sha256 = sha256(png);
+        Long dHash = PERCEPTUAL ? differenceHash(png) : null;
+
+        Entry entry = blobFor(png, sha256, dHash);
+        Path blob = blobDirectory.resolve(entry.blob());
+        try {
+            Files.deleteIfExists(capturePath);
+            Files.createLink(capturePath, blob);
+        } catch (IOException | UnsupportedOperationException e) {
+            // File systems without hard links get a copy; the blob still backs the manifest
+            Files.copy(blob, capturePath);
+        }
+        manifest.put(directory.relativize(capturePath.toAbsolutePath().normalize()).toString(), entry);
+    }
+
+    /**
+     * Logs de-duplication totals and writes the manifest of every store. Called once after all scenarios.
+     */
+    public static void logSummaryAndSave() {
+        stores.values().forEach(ScreenshotStore::summarizeAndSave);
+    }
+
+    private synchronized Entry blobFor(byte[] png, String sha256, Long dHash) throws IOException {
+        String hex = dHash == null ? null : HexFormat.of().toHexDigits(dHash);
+        String exactBlob = sha256 + ".png";
+        if (Files.exists(blobDirectory.resolve(exactBlob))) {
+            bytesSaved.addAndGet(png.length);
+            return new Entry(exactBlob, hex, null, 0);
+        }
+
+        Files.createDirectories(blobDirectory);
+        Files.write(blobDirectory.resolve(exactBlob), png);
+        blobsWritten.incrementAndGet();
+        if (dHash == null) {
+            return new Entry(exactBlob, null, null, 0);
+        }
+
+        Entry entry = new Entry(exactBlob, hex, null, 0);
+        for (Frame frame : recentFrames) {
+            int distance = Long.bitCount(frame.dHash() ^ dHash);
+            if (distance <= MAX_DISTANCE) {
+                nearDuplicates.incrementAndGet();
+                entry = new Entry(exactBlob, hex, frame.blob(), distance);
+                break;
+            }
+        }
+        recentFrames.addFirst(new Frame(exactBlob, dHash));
+        if (recentFrames.size() > WINDOW) {
+            recentFrames.removeLast();
+        }
+        return entry;
+    }
+
+    private void summarizeAndSave() {
+        logger.info("Screenshot store {} - captures: {}, blobs written: {}, bytes saved by de-duplication: {}, near-duplicates marked: {}",
+                directory, captures.get(), blobsWritten.get(), bytesSaved.get(), nearDuplicates.get());
+        try {
+            Files.createDirectories(directory);
+            mapper.writeValue(manifestFile, new TreeMap<>(manifest));
+        } catch (IOException e) {
+            logger.error("Failed to save screenshot manifest {}", manifestFile.getPath(), e);
+        }
+    }
+
+    private void load() {
+        if (!manifestFile.exists()) {
+            return;
+        }
+        try {
+            manifest.putAll(mapper.readValue(manifestFile, new TypeReference<Map<String, Entry>>() {
+            }));
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable screenshot manifest {}: {}", manifestFile.getPath(), e.getMessage());
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 64-bit dHash: the frame averaged down to 9x8 grey cells, one bit per horizontally adjacent pair that gets brighter.
+     *
+     * @return the hash, or null if the bytes could not be decoded as an image
+     */
+    static Long differenceHash(byte[] png) {
+        BufferedImage image;
+        try {
+            image = ImageIO.read(new ByteArrayInputStream(png));
+        } catch (IOException e) {
+            return null;
+        }
+        if (image == null) {
+            return null;
+        }
+        // Box average into 9x8 cells in one pass over the rows, which keeps the hash stable against
+        // single-pixel changes such as a blinking cursor
+        int width = image.getWidth();
+        int height = image.getHeight();
+        long[] sums = new long[9 * 8];
+        long[] counts = new long[9 * 8];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellY = y * 8 / height;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                int grey = (((rgb >> 16) & 0xFF) * 299 + ((rgb >> 8) & 0xFF) * 587 + (rgb & 0xFF) * 114) / 1000;
+                int cell = cellY * 9 + x * 9 / width;
+                sums[cell] += grey;
+                counts[cell]++;
+            }
+        }
+
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                int cell = y * 9 + x;
+                long left = sums[cell] * counts[cell + 1];
+                long right = sums[cell + 1] * counts[cell];
+                hash = (hash << 1) | (left < right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+}
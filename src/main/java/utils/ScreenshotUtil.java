@@ -1,20 +1,31 @@
 package utils;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Utility for capturing screenshots from WebDriver or AppiumDriver instances.
+ * The test thread only fetches the screenshot; decoding and writing the PNG happen on a bounded
+ * background writer ({@code screenshot.writer.threads}, default 2, with {@code screenshot.writer.queue.capacity},
+ * default 16, waiting writes). When the queue is full the test thread writes the file itself.
+ * Call {@link #flush()} at scenario end so every file is on disk before reports are built.
+ * Files go through {@link ScreenshotStore}, which stores identical frames once.
  */
 public final class ScreenshotUtil {
 
@@ -23,6 +34,17 @@ public final class ScreenshotUtil {
     private static final String SCREENSHOT_DIR =
             System.getProperty("user.dir") + "/test-output-result/screenshots/";
 
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("dd-MMM-yy_HH-mm-ss");
+
+    private static final ExecutorService writer = BackgroundExecutors.newBoundedExecutor("screenshot-writer",
+            ConfigReader.getInstance().getInt("screenshot.writer.threads", 2),
+            ConfigReader.getInstance().getInt("screenshot.writer.queue.capacity", 16));
+
+    private static final long FLUSH_TIMEOUT_SECONDS = ConfigReader.getInstance().getLong("screenshot.flush.timeout.seconds", 30);
+
+    // Writes started by the scenario running on this thread
+    private static final ThreadLocal<List<Future<?>>> pendingWrites = ThreadLocal.withInitial(ArrayList::new);
+
     private ScreenshotUtil() {
         // Prevent instantiation
     }
@@ -32,36 +54,70 @@ public final class ScreenshotUtil {
      *
      * @param driver          any driver implementing TakesScreenshot
      * @param screenshotName  desired name for the screenshot file
-     * @return path to the saved screenshot file, or null if failure
+     * @return path the screenshot is written to (possibly still in progress; see {@link #flush()}), or null if failure
      */
     public static String captureScreen(TakesScreenshot driver, String screenshotName) {
-        String timestamp = new SimpleDateFormat("dd-MMM-yy_HH-mm-ss").format(new Date());
+        return captureScreen(driver, Paths.get(SCREENSHOT_DIR), screenshotName);
+    }
 
-        Path dirPath = Paths.get(SCREENSHOT_DIR);
-        Path screenshotPath = dirPath.resolve(timestamp + "_" + screenshotName + ".png");
+    /**
+     * Same as {@link #captureScreen(TakesScreenshot, String)}, writing into {@code directory}.
+     */
+    public static String captureScreen(TakesScreenshot driver, Path directory, String screenshotName) {
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        Path screenshotPath = directory.resolve(timestamp + "_" + screenshotName + ".png").toAbsolutePath();
 
         try {
-            File dir = dirPath.toFile();
-            if (!dir.exists()) {
-                boolean created = dir.mkdirs();
-                if (created) {
-                    logger.info("Created screenshot directory: {}", SCREENSHOT_DIR);
+            // The server sends base64 anyway; decoding is left to the writer
+            String base64 = driver.getScreenshotAs(OutputType.BASE64);
+            pendingWrites.get().add(writer.submit(() -> write(base64, screenshotPath)));
+            return screenshotPath.toString();
+        } catch (Exception e) {
+            logger.error("Unexpected error capturing screenshot: {}", e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Waits for the screenshots captured on this thread to be written. A failed write does not stop
+     * the wait for the others.
+     *
+     * @return true if all of them were written in time
+     */
+    public static boolean flush() {
+        List<Future<?>> pending = pendingWrites.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(FLUSH_TIMEOUT_SECONDS);
+        int failed = 0;
+        int unfinished = 0;
+        try {
+            for (Future<?> write : pending) {
+                try {
+                    write.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    logger.error("Screenshot write failed: {}", e.getCause().getMessage(), e.getCause());
+                    failed++;
+                } catch (TimeoutException e) {
+                    unfinished++;
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            pending.clear();
+        }
+        if (unfinished > 0) {
+            logger.warn("{} screenshot write(s) still pending after {} seconds.", unfinished, FLUSH_TIMEOUT_SECONDS);
+        }
+        return failed == 0 && unfinished == 0;
+    }
 
-            File srcFile = driver.getScreenshotAs(OutputType.FILE);
-            File destFile = screenshotPath.toFile();
-
-            FileUtils.copyFile(srcFile, destFile);
-            logger.info("Screenshot saved at: {}", screenshotPath.toAbsolutePath());
-
-            return screenshotPath.toAbsolutePath().toString();
-
+    private static void write(String base64, Path screenshotPath) {
+        try {
+            ScreenshotStore.forDirectory(screenshotPath.getParent()).store(Base64.getMimeDecoder().decode(base64), screenshotPath);
+            logger.info("Screenshot saved at: {}", screenshotPath);
         } catch (IOException e) {
             logger.error("Failed to save screenshot due to IO error: {}", e.getMessage(), e);
-        } catch (Exception e) {
-            logger.error("Unexpected error capturing screenshot: {}", e.getMessage(), e);
         }
-        return null;
     }
 }
@@ -4,45 +4,136 @@ import io.appium.java_client.AppiumDriver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.FluentWait;
+import utils.locators.LazyElement;
+import utils.popups.PopupWatcher;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Function;
 
 /**
  * Professional wait utility class for mobile automation.
  * Works for Android and iOS (TTA/Pro App).
+ * Waits poll on an {@link AdaptivePolling} schedule and only ignore not-found and stale-element errors.
  */
 public class WaitUtils {
 
     private static final Logger logger = LogManager.getLogger(WaitUtils.class);
 
+    // Shared schedule key for waits that cannot be profiled per element
+    private static final String UNPROFILED_KEY = "(page element)";
+
     private final AppiumDriver driver;
     private final int defaultTimeoutSeconds;
     private final int defaultPollingMillis;
 
     public WaitUtils(AppiumDriver driver) {
         this.driver = driver;
-        this.defaultTimeoutSeconds = Integer.parseInt(
-                ConfigReader.getInstance().getProperty("default.wait.seconds", "10"));
-        this.defaultPollingMillis = Integer.parseInt(
-                ConfigReader.getInstance().getProperty("default.wait.polling.millis", "500"));
+        this.defaultTimeoutSeconds = ConfigReader.getInstance().getInt("default.wait.seconds", 10);
+        this.defaultPollingMillis = ConfigReader.getInstance().getInt("default.wait.polling.millis", 500);
     }
 
-    private FluentWait<AppiumDriver> createFluentWait(int seconds) {
-        return new FluentWait<>(driver)
+    private FluentWait<AppiumDriver> createFluentWait(int seconds, AdaptivePolling.Schedule schedule) {
+        return new FluentWait<>(driver, Clock.systemDefaultZone(), schedule)
                 .withTimeout(Duration.ofSeconds(seconds))
                 .pollingEvery(Duration.ofMillis(defaultPollingMillis))
-                .ignoring(Exception.class);
+                .ignoring(NotFoundException.class)
+                .ignoring(StaleElementReferenceException.class);
+    }
+
+    /**
+     * Runs the condition on the adaptive polling schedule for {@code key} and records the outcome.
+     *
+     * @param key     profile key, or null to wait on an unprofiled schedule
+     * @param locator the locator waited for, or null if the condition has none
+     */
+    private <T> T awaitCondition(String key, By locator, int seconds, Function<? super AppiumDriver, T> condition) {
+        AdaptivePolling.Schedule schedule = key == null ? AdaptivePolling.start(UNPROFILED_KEY) : startSchedule(key);
+        boolean satisfied = false;
+        try {
+            T result = createFluentWait(seconds, schedule).until(watchingPopups(locator, condition));
+            satisfied = true;
+            return result;
+        } finally {
+            if (key == null) {
+                schedule.finish(satisfied);
+            } else {
+                finish(key, schedule, satisfied);
+            }
+        }
+    }
+
+    /**
+     * Profile key for a wait on a page element: the locator of a bound {@link LazyElement}, or null for a
+     * PageFactory proxy, whose toString() looks the element up and includes the session id.
+     */
+    private static String elementKey(String kind, WebElement element) {
+        By locator = locatorOf(element);
+        return locator == null ? null : kind + ":" + locator;
+    }
+
+    private static By locatorOf(WebElement element) {
+        return element instanceof LazyElement lazy ? lazy.getLocator() : null;
+    }
+
+    /**
+     * @return text for log lines that does not trigger a lookup
+     */
+    private static String describe(WebElement element) {
+        By locator = locatorOf(element);
+        return locator == null ? "page element" : locator.toString();
+    }
+
+    /**
+     * Lets the popup watcher close known dialogs after a poll that did not succeed, unless the wait is
+     * for one of those dialogs.
+     */
+    private <T> Function<AppiumDriver, T> watchingPopups(By locator, Function<? super AppiumDriver, T> condition) {
+        if (PopupWatcher.isPopupLocator(locator)) {
+            return condition::apply;
+        }
+        return input -> {
+            T result;
+            try {
+                result = condition.apply(input);
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                PopupWatcher.forDriver(driver).checkIfDue();
+                throw e;
+            }
+            if (result == null || Boolean.FALSE.equals(result)) {
+                PopupWatcher.forDriver(driver).checkIfDue();
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Starts a polling schedule seeded with the locator's profile from earlier runs on this device and build.
+     */
+    private static AdaptivePolling.Schedule startSchedule(String key) {
+        LocatorProfileStore profiles = LocatorProfileStore.getInstance();
+        return AdaptivePolling.start(key, profiles.getLearnedP95Millis(key), profiles.getWarnThresholdMillis(key));
+    }
+
+    private static void finish(String key, AdaptivePolling.Schedule schedule, boolean satisfied) {
+        long elapsed = schedule.finish(satisfied);
+        if (satisfied) {
+            LocatorProfileStore.getInstance().record(key, elapsed);
+        }
     }
 
 
     public WebElement waitForElementToBeVisible(By locator, int seconds) {
         try {
-            WebElement el = createFluentWait(seconds).until(ExpectedConditions.visibilityOfElementLocated(locator));
+            WebElement el = awaitCondition("visible:" + locator, locator, seconds, ExpectedConditions.visibilityOfElementLocated(locator));
             logger.info("Element visible: {}", locator);
             return el;
         } catch (TimeoutException e) {
@@ -58,11 +149,11 @@ public class WaitUtils {
 
     public WebElement waitForElementToBeVisible(WebElement element, int seconds) {
         try {
-            WebElement el = createFluentWait(seconds).until(ExpectedConditions.visibilityOf(element));
-            logger.info("WebElement visible: {}", element);
+            WebElement el = awaitCondition(elementKey("visible", element), locatorOf(element), seconds, ExpectedConditions.visibilityOf(element));
+            logger.info("WebElement visible: {}", describe(element));
             return el;
         } catch (TimeoutException e) {
-            logger.error("Timeout waiting for WebElement visibility of: {}", element, e);
+            logger.error("Timeout waiting for WebElement visibility of: {}", describe(element), e);
             throw e;
         }
     }
@@ -74,7 +165,7 @@ public class WaitUtils {
 
     public WebElement waitForElementToBeClickable(By locator, int seconds) {
         try {
-            WebElement el = createFluentWait(seconds).until(ExpectedConditions.elementToBeClickable(locator));
+            WebElement el = awaitCondition("clickable:" + locator, locator, seconds, ExpectedConditions.elementToBeClickable(locator));
             logger.info("Element clickable: {}", locator);
             return el;
         } catch (TimeoutException e) {
@@ -90,11 +181,11 @@ public class WaitUtils {
 
     public WebElement waitForElementToBeClickable(WebElement element, int seconds) {
         try {
-            WebElement el = createFluentWait(seconds).until(ExpectedConditions.elementToBeClickable(element));
-            logger.info("WebElement clickable: {}", element);
+            WebElement el = awaitCondition(elementKey("clickable", element), locatorOf(element), seconds, ExpectedConditions.elementToBeClickable(element));
+            logger.info("WebElement clickable: {}", describe(element));
             return el;
         } catch (TimeoutException e) {
-            logger.error("Timeout waiting for WebElement clickability of: {}", element);
+            logger.error("Timeout waiting for WebElement clickability of: {}", describe(element));
             throw e;
         }
     }
@@ -107,7 +198,7 @@ public class WaitUtils {
 
     public boolean isElementVisible(By locator, int seconds) {
         try {
-            createFluentWait(seconds).until(ExpectedConditions.visibilityOfElementLocated(locator));
+            awaitCondition("visible:" + locator, locator, seconds, ExpectedConditions.visibilityOfElementLocated(locator));
             logger.info("Element is visible: {}", locator);
             return true;
         } catch (TimeoutException e) {
@@ -118,7 +209,7 @@ public class WaitUtils {
 
     public boolean isElementClickable(By locator, int seconds) {
         try {
-            createFluentWait(seconds).until(ExpectedConditions.elementToBeClickable(locator));
+            awaitCondition("clickable:" + locator, locator, seconds, ExpectedConditions.elementToBeClickable(locator));
             logger.info("Element is clickable: {}", locator);
             return true;
         } catch (TimeoutException e) {
@@ -129,7 +220,7 @@ public class WaitUtils {
 
     public boolean waitForInvisibility(By locator, int seconds) {
         try {
-            createFluentWait(seconds).until(ExpectedConditions.invisibilityOfElementLocated(locator));
+            awaitCondition("invisible:" + locator, locator, seconds, ExpectedConditions.invisibilityOfElementLocated(locator));
             logger.info("Element is invisible: {}", locator);
             return true;
         } catch (TimeoutException e) {
@@ -140,7 +231,7 @@ public class WaitUtils {
 
     public WebElement waitForPresenceOfElement(By locator, int seconds) {
         try {
-            WebElement el = createFluentWait(seconds).until(ExpectedConditions.presenceOfElementLocated(locator));
+            WebElement el = awaitCondition("present:" + locator, locator, seconds, ExpectedConditions.presenceOfElementLocated(locator));
             logger.info("Element present in DOM: {}", locator);
             return el;
         } catch (TimeoutException e) {
@@ -151,7 +242,7 @@ public class WaitUtils {
 
     public boolean waitForTextToBe(By locator, String text, int seconds) {
         try {
-            boolean result = createFluentWait(seconds).until(ExpectedConditions.textToBe(locator, text));
+            boolean result = awaitCondition("text:" + locator, locator, seconds, ExpectedConditions.textToBe(locator, text));
             logger.info("Text '{}' is present in element: {}", text, locator);
             return result;
         } catch (TimeoutException e) {
@@ -162,7 +253,7 @@ public class WaitUtils {
 
     public boolean waitForAttributeToContain(By locator, String attribute, String value, int seconds) {
         try {
-            boolean result = createFluentWait(seconds).until(ExpectedConditions.attributeContains(locator, attribute, value));
+            boolean result = awaitCondition("attribute:" + locator, locator, seconds, ExpectedConditions.attributeContains(locator, attribute, value));
             logger.info("Attribute '{}' contains '{}' in element: {}", attribute, value, locator);
             return result;
         } catch (TimeoutException e) {
@@ -171,9 +262,21 @@ public class WaitUtils {
         }
     }
 
+    /**
+     * Waits for a custom condition on an unprofiled schedule. A condition's toString() is no profile key:
+     * lambdas print an identity hash that changes every run, and conditions over PageFactory proxies look
+     * the element up; use {@link #waitForCondition(String, ExpectedCondition, int)} to profile it.
+     */
     public <T> T waitForCondition(ExpectedCondition<T> condition, int seconds) {
+        return waitForCondition(null, condition, seconds);
+    }
+
+    /**
+     * @param key stable profile key for the condition, e.g. "cart-total-updated"; null to leave it unprofiled
+     */
+    public <T> T waitForCondition(String key, ExpectedCondition<T> condition, int seconds) {
         try {
-            T result = createFluentWait(seconds).until(condition);
+            T result = awaitCondition(key, null, seconds, condition);
             logger.info("Custom wait condition succeeded.");
             return result;
         } catch (TimeoutException e) {
@@ -183,27 +286,84 @@ public class WaitUtils {
     }
 
 
-    //working on this
-    public By waitForAnyElementVisible(By[] locators, int seconds) {
-        long startTime = System.currentTimeMillis();
+    /**
+     * Waits until any one of the locators is visible, checking all of them against a single
+     * page-source snapshot per poll instead of one findElement round trip per locator.
+     * Locators that cannot be expressed as XPath (e.g. androidUIAutomator) are checked on the device.
+     *
+     * @return the first locator found visible, in the given order, with its element; null on timeout
+     */
+    public LocatorMatch waitForAnyElementVisible(By[] locators, int seconds) {
+        long deadline = System.currentTimeMillis() + seconds * 1000L;
+        String key = "any:" + Arrays.toString(locators);
+        AdaptivePolling.Schedule schedule = startSchedule(key);
+        boolean satisfied = false;
+        try {
+            while (true) {
+                LocatorMatch match = findFirstVisible(locators);
+                if (match != null) {
+                    satisfied = true;
+                    logger.info("Found visible element: {}", match.locator());
+                    return match;
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    logger.warn("None of the locators were visible after {} seconds.", seconds);
+                    return null;
+                }
+                schedule.sleep(Duration.ofMillis(defaultPollingMillis));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Wait for any visible element interrupted.");
+            return null;
+        } finally {
+            finish(key, schedule, satisfied);
+        }
+    }
 
-        while ((System.currentTimeMillis() - startTime) < seconds * 1000L) {
-            for (By locator : locators) {
-                if (isElementVisible(locator, 2)) {
-                    logger.info("Found visible element: {}", locator);
-                    return locator;
+    private LocatorMatch findFirstVisible(By[] locators) {
+        HierarchySnapshot snapshot = captureSnapshot();
+        boolean watch = Arrays.stream(locators).noneMatch(PopupWatcher::isPopupLocator);
+        if (watch && snapshot != null && !PopupWatcher.forDriver(driver).dismissPresent(snapshot).isEmpty()) {
+            // A dismissed popup changes the screen; check the locators on a fresh snapshot
+            snapshot = captureSnapshot();
+        }
+        for (By locator : locators) {
+            try {
+                if (snapshot != null && HierarchySnapshot.isSupported(locator)) {
+                    if (snapshot.isDisplayed(locator)) {
+                        // Only the match costs a round trip, to hand back a live element
+                        return new LocatorMatch(locator, driver.findElement(locator));
+                    }
+                } else {
+                    for (WebElement element : driver.findElements(locator)) {
+                        if (element.isDisplayed()) {
+                            return new LocatorMatch(locator, element);
+                        }
+                    }
                 }
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                logger.debug("Locator {} matched the snapshot but the screen changed before lookup.", locator);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Locator {} could not be checked on the snapshot: {}", locator, e.getMessage());
             }
         }
-        logger.warn("None of the locators were visible after {} seconds.", seconds);
         return null;
     }
-    //================
+
+    private HierarchySnapshot captureSnapshot() {
+        try {
+            return HierarchySnapshot.capture(driver);
+        } catch (RuntimeException e) {
+            logger.debug("Could not parse page source; falling back to device lookups: {}", e.getMessage());
+            return null;
+        }
+    }
 
 
     public static void executionDelay(int seconds) {
         try {
-            Thread.sleep(seconds * 1000L);
+            IdleBudget.sleep("WaitUtils.executionDelay", seconds * 1000L);
             logger.info("Execution delayed for {} seconds.", seconds);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
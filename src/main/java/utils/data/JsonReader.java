@@ -173,6 +173,28 @@ public class JsonReader {
         }
     }
 
+    /**
+     * Reads every device config from the android-devices.json file, grouped by device type.
+     *
+     * @return Map of device type ("emulator", "real-device") to device key to device capabilities
+     */
+    public static Map<String, Map<String, Map<String, Object>>> readAllAndroidDeviceConfigs() {
+        try {
+            String jsonFilePath = Paths.get(System.getProperty("user.dir"),
+                    "src", "test", "resources", "appium", "devices", "android-devices.json").toString();
+
+            JsonNode configsNode = mapper.readTree(new File(jsonFilePath)).get("device-configs");
+            if (configsNode == null) {
+                throw new RuntimeException("Missing 'device-configs' section.");
+            }
+
+            return mapper.convertValue(configsNode, new TypeReference<Map<String, Map<String, Map<String, Object>>>>() {
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Error reading device configs from JSON", e);
+        }
+    }
+
     /**
      * Reads global settings from the android-devices.json file.
      *
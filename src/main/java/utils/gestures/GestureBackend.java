@@ -0,0 +1,24 @@
+package utils.gestures;
+
+import utils.ConfigReader;
+
+/**
+ * How gestures reach the device, set with {@code gesture.backend}:
+ * <ul>
+ *     <li>{@code w3c} - W3C pointer actions only</li>
+ *     <li>{@code native} - UiAutomator2 {@code mobile:} gesture commands only; failures are not retried</li>
+ *     <li>{@code auto} (default) - native commands on UiAutomator2 sessions, W3C actions when they are unavailable or fail</li>
+ * </ul>
+ */
+public enum GestureBackend {
+    W3C, NATIVE, AUTO;
+
+    public static GestureBackend configured() {
+        String value = ConfigReader.getInstance().getProperty("gesture.backend", "auto");
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported gesture.backend '" + value + "'; expected w3c, native or auto.", e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package utils.gestures;
+
+import io.appium.java_client.AppiumDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.interactions.Pause;
+import org.openqa.selenium.interactions.PointerInput;
+import org.openqa.selenium.interactions.Sequence;
+import utils.DeviceProfile;
+import utils.locators.ElementCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chains taps, swipes, pauses and two-finger gestures into a single W3C actions payload, sent with one
+ * {@code perform} call:
+ * <pre>
+ * GestureComposer.on(driver).tapCenter().scrollDown(600).scrollDown(600).perform();
+ * </pre>
+ * Steps run one after another. Each finger is a separate input source; when a step uses fewer fingers,
+ * the others are padded with zero-length pauses so every step starts on the same tick.
+ * Screen-relative steps use the viewport size from the session's {@link DeviceProfile}.
+ */
+public final class GestureComposer {
+
+    private static final Logger logger = LogManager.getLogger(GestureComposer.class);
+
+    private static final Duration TAP_HOLD = Duration.ofMillis(100);
+    private static final int SCROLL_DURATION_MILLIS = 500;
+
+    private final AppiumDriver driver;
+    private final List<PointerInput> fingers = new ArrayList<>();
+    private final List<Sequence> sequences = new ArrayList<>();
+    private final List<String> steps = new ArrayList<>();
+
+    private GestureComposer(AppiumDriver driver) {
+        this.driver = driver;
+    }
+
+    public static GestureComposer on(AppiumDriver driver) {
+        return new GestureComposer(driver);
+    }
+
+    public GestureComposer tap(int x, int y) {
+        Sequence finger = startStep(1).getFirst();
+        PointerInput input = fingers.getFirst();
+        finger.addAction(input.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), x, y));
+        finger.addAction(input.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
+        finger.addAction(new Pause(input, TAP_HOLD));
+        finger.addAction(input.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+        steps.add("tap(" + x + ", " + y + ")");
+        return this;
+    }
+
+    public GestureComposer tapCenter() {
+        Dimension size = DeviceProfile.of(driver).viewport();
+        return tap(size.width / 2, size.height / 2);
+    }
+
+    public GestureComposer pause(long millis) {
+        Sequence finger = startStep(1).getFirst();
+        finger.addAction(new Pause(fingers.getFirst(), Duration.ofMillis(millis)));
+        steps.add("pause(" + millis + " ms)");
+        return this;
+    }
+
+    public GestureComposer swipe(int startX, int startY, int endX, int endY, int durationMillis) {
+        startStep(1);
+        stroke(0, startX, startY, endX, endY, durationMillis);
+        steps.add("swipe(" + startX + ", " + startY + " -> " + endX + ", " + endY + ")");
+        return this;
+    }
+
+    /**
+     * Swipes up from 80% of the screen height, moving the content down by {@code distancePixels}.
+     */
+    public GestureComposer scrollDown(int distancePixels) {
+        Dimension size = DeviceProfile.of(driver).viewport();
+        int x = size.width / 2;
+        int startY = (int) (size.height * 0.8);
+        return swipe(x, startY, x, startY - distancePixels, SCROLL_DURATION_MILLIS);
+    }
+
+    /**
+     * Swipes down from 20% of the screen height, moving the content up by {@code distancePixels}.
+     */
+    public GestureComposer scrollUp(int distancePixels) {
+        Dimension size = DeviceProfile.of(driver).viewport();
+        int x = size.width / 2;
+        int startY = (int) (size.height * 0.2);
+        return swipe(x, startY, x, startY + distancePixels, SCROLL_DURATION_MILLIS);
+    }
+
+    /**
+     * Two fingers moving horizontally around a centre point: from {@code startOffset} to {@code endOffset}
+     * pixels on either side. A smaller end offset pinches in, a larger one zooms out.
+     */
+    public GestureComposer pinch(int centerX, int centerY, int startOffset, int endOffset, int durationMillis) {
+        startStep(2);
+        stroke(0, centerX - startOffset, centerY, centerX - endOffset, centerY, durationMillis);
+        stroke(1, centerX + startOffset, centerY, centerX + endOffset, centerY, durationMillis);
+        steps.add("pinch(" + centerX + ", " + centerY + ": " + startOffset + " -> " + endOffset + ")");
+        return this;
+    }
+
+    /**
+     * Sends every composed step in one actions call. Does nothing when no step was added.
+     */
+    public void perform() {
+        if (sequences.isEmpty()) {
+            return;
+        }
+        try {
+            driver.perform(sequences);
+            logger.info("Performed {} gesture step(s) in one call: {}", steps.size(), steps);
+        } catch (Exception e) {
+            logger.error("Gesture failed: {} - {}", steps, e.getMessage(), e);
+            throw e;
+        } finally {
+            // Gestures may navigate; element handles are re-checked on the next lookup
+            ElementCache.forContext(driver).afterNavigation();
+        }
+    }
+
+    private void stroke(int fingerIndex, int startX, int startY, int endX, int endY, int durationMillis) {
+        Sequence finger = sequences.get(fingerIndex);
+        PointerInput input = fingers.get(fingerIndex);
+        finger.addAction(input.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), startX, startY));
+        finger.addAction(input.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
+        finger.addAction(input.createPointerMove(Duration.ofMillis(durationMillis), PointerInput.Origin.viewport(), endX, endY));
+        finger.addAction(input.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+    }
+
+    /**
+     * Makes sure {@code fingerCount} fingers exist and pads every finger to the same length, so the next
+     * step starts after all previous ones.
+     */
+    private List<Sequence> startStep(int fingerCount) {
+        int length = sequences.stream().mapToInt(Sequence::size).max().orElse(0);
+        while (fingers.size() < fingerCount) {
+            PointerInput input = new PointerInput(PointerInput.Kind.TOUCH, "finger" + (fingers.size() + 1));
+            fingers.add(input);
+            sequences.add(new Sequence(input, length));
+        }
+        for (int i = 0; i < sequences.size(); i++) {
+            Sequence sequence = sequences.get(i);
+            while (sequence.size() < length) {
+                sequence.addAction(new Pause(fingers.get(i), Duration.ZERO));
+            }
+        }
+        return sequences;
+    }
+}
@@ -0,0 +1,131 @@
+package utils.gestures;
+
+import io.appium.java_client.AppiumDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriverException;
+import utils.DeviceProfile;
+import utils.locators.ElementCache;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * UiAutomator2 {@code mobile:} gesture commands, which run the whole gesture on the device instead of
+ * having Appium replay W3C actions step by step. Every method returns false when the command was not
+ * sent or failed under {@link GestureBackend#AUTO}, so the caller can fall back to W3C actions.
+ * A session that does not know a command uses W3C actions for the rest of its life.
+ */
+public final class NativeGestures {
+
+    private static final Logger logger = LogManager.getLogger(NativeGestures.class);
+
+    private static final GestureBackend BACKEND = GestureBackend.configured();
+
+    private static final Set<AppiumDriver> unsupported = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private NativeGestures() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @return true if native commands should be tried on this session
+     */
+    public static boolean isEnabled(AppiumDriver driver) {
+        return switch (BACKEND) {
+            case W3C -> false;
+            case NATIVE -> true;
+            case AUTO -> !unsupported.contains(driver) && DeviceProfile.of(driver).isUiAutomator2();
+        };
+    }
+
+    public static boolean click(AppiumDriver driver, int x, int y) {
+        return execute(driver, "mobile: clickGesture", Map.of("x", x, "y", y));
+    }
+
+    /**
+     * @param direction direction the content scrolls towards: up, down, left or right
+     * @param percent   scroll size as a fraction of the area, 1.0 being the full area
+     */
+    public static boolean scroll(AppiumDriver driver, Rectangle area, String direction, double percent) {
+        return execute(driver, "mobile: scrollGesture", areaArgs(area, direction, percent));
+    }
+
+    /**
+     * @param direction direction the finger moves: up, down, left or right
+     * @param percent   swipe size as a fraction of the area, 1.0 being the full area
+     */
+    public static boolean swipe(AppiumDriver driver, Rectangle area, String direction, double percent) {
+        return execute(driver, "mobile: swipeGesture", areaArgs(area, direction, percent));
+    }
+
+    /**
+     * Scrolls the first scrollable container on the device until a UiSelector matches, without a
+     * round trip per swipe. Unlike the other gestures, only an unknown command falls back: once the device
+     * has scrolled and not found the element, repeating the search with W3C swipes cannot find it either.
+     *
+     * @param uiSelector a UiSelector expression, e.g. {@code new UiSelector().resourceId("...")}
+     * @return false if the command was not sent or is not supported under {@link GestureBackend#AUTO}
+     * @throws NoSuchElementException if the device scrolled without finding the element
+     */
+    public static boolean scrollTo(AppiumDriver driver, String uiSelector, int maxSwipes) {
+        if (!isEnabled(driver)) {
+            return false;
+        }
+        Map<String, Object> args = Map.of("strategy", "-android uiautomator", "selector", uiSelector, "maxSwipes", maxSwipes);
+        try {
+            driver.executeScript("mobile: scroll", args);
+            logger.info("Performed mobile: scroll with {}", args);
+            return true;
+        } catch (UnsupportedCommandException e) {
+            if (BACKEND == GestureBackend.NATIVE) {
+                throw e;
+            }
+            unsupported.add(driver);
+            logger.warn("mobile: scroll is not supported; falling back to W3C actions: {}", e.getMessage());
+            return false;
+        } catch (WebDriverException e) {
+            throw new NoSuchElementException("No element matching " + uiSelector + " after " + maxSwipes + " swipe(s).", e);
+        } finally {
+            ElementCache.forContext(driver).afterNavigation();
+        }
+    }
+
+    private static boolean execute(AppiumDriver driver, String command, Map<String, Object> args) {
+        if (!isEnabled(driver)) {
+            return false;
+        }
+        try {
+            driver.executeScript(command, args);
+            logger.info("Performed {} with {}", command, args);
+            return true;
+        } catch (WebDriverException e) {
+            if (BACKEND == GestureBackend.NATIVE) {
+                throw e;
+            }
+            if (e instanceof UnsupportedCommandException) {
+                unsupported.add(driver);
+            }
+            logger.warn("{} failed; falling back to W3C actions: {}", command, e.getMessage());
+            return false;
+        } finally {
+            // Gestures may navigate; element handles are re-checked on the next lookup
+            ElementCache.forContext(driver).afterNavigation();
+        }
+    }
+
+    private static Map<String, Object> areaArgs(Rectangle area, String direction, double percent) {
+        return Map.of(
+                "left", area.getX(),
+                "top", area.getY(),
+                "width", area.getWidth(),
+                "height", area.getHeight(),
+                "direction", direction,
+                "percent", percent);
+    }
+}
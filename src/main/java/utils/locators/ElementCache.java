@@ -0,0 +1,142 @@
+package utils.locators;
+
+import io.appium.java_client.android.StartsActivity;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import utils.ConfigReader;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Element handles found on the current screen, one cache per driver session.
+ * A handle is reused until the screen epoch ends, which happens when:
+ * <ul>
+ *     <li>the activity has changed - checked once, on the next lookup after a click or submit</li>
+ *     <li>a hierarchy snapshot shows a different structure (classes and resource ids)</li>
+ *     <li>a cached handle throws StaleElementReferenceException</li>
+ * </ul>
+ * Disable with {@code element.cache.enabled=false}.
+ */
+public final class ElementCache {
+
+    private static final Logger logger = LogManager.getLogger(ElementCache.class);
+
+    private static final boolean ENABLED = ConfigReader.getInstance().getBoolean("element.cache.enabled", true);
+
+    private static final Map<SearchContext, ElementCache> caches = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong invalidations = new AtomicLong();
+
+    private final SearchContext context;
+    private final Map<By, WebElement> elements = new HashMap<>();
+    private long epoch;
+    private boolean activityCheckPending;
+    private String lastActivity;
+    private Integer lastHierarchyHash;
+
+    private ElementCache(SearchContext context) {
+        this.context = context;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static ElementCache forContext(SearchContext context) {
+        return caches.computeIfAbsent(context, ElementCache::new);
+    }
+
+    /**
+     * Drops the cache of a session that is being quit. Needed because the cache holds its context strongly,
+     * so the weak key alone never lets the entry go.
+     */
+    public static void remove(SearchContext context) {
+        caches.remove(context);
+    }
+
+    /**
+     * @return the handle cached in this epoch, or a freshly found one
+     */
+    public synchronized WebElement find(By locator) {
+        if (activityCheckPending) {
+            activityCheckPending = false;
+            checkActivity();
+        }
+        WebElement element = elements.get(locator);
+        if (element != null) {
+            hits.incrementAndGet();
+            return element;
+        }
+        misses.incrementAndGet();
+        element = context.findElement(locator);
+        elements.put(locator, element);
+        return element;
+    }
+
+    /**
+     * Called after a click or submit; the activity is compared on the next lookup rather than right away.
+     */
+    public synchronized void afterNavigation() {
+        activityCheckPending = true;
+    }
+
+    /**
+     * Called with the structure hash of every captured hierarchy snapshot.
+     */
+    public synchronized void observeHierarchy(int structureHash) {
+        if (lastHierarchyHash != null && lastHierarchyHash != structureHash) {
+            invalidate("hierarchy changed");
+        }
+        lastHierarchyHash = structureHash;
+    }
+
+    /**
+     * Ends the current screen epoch and drops every cached handle.
+     */
+    public synchronized void invalidate(String reason) {
+        if (!elements.isEmpty()) {
+            invalidations.incrementAndGet();
+            logger.debug("Element cache epoch {} ended ({}); dropped {} handle(s).", epoch, reason, elements.size());
+        }
+        elements.clear();
+        epoch++;
+    }
+
+    public synchronized long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Logs cache hits, misses and invalidations. Called once after all scenarios.
+     */
+    public static void logSummary() {
+        logger.info("Element cache summary - enabled: {}, hits: {}, lookups: {}, epochs invalidated: {}",
+                ENABLED, hits.get(), misses.get(), invalidations.get());
+    }
+
+    private void checkActivity() {
+        if (!(context instanceof StartsActivity activityAware)) {
+            invalidate("navigation on a driver without activities");
+            return;
+        }
+        try {
+            String activity = activityAware.currentActivity();
+            if (lastActivity == null || !lastActivity.equals(activity)) {
+                // With no earlier activity to compare against, assume the screen changed
+                invalidate("activity " + lastActivity + " -> " + activity);
+            }
+            lastActivity = activity;
+        } catch (Exception e) {
+            invalidate("activity check failed");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package utils.locators;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Element that resolves itself on use, like a PageFactory proxy but without a dynamic proxy.
+ * Generated page binders assign one to each {@code @FindBy} field.
+ * Handles come from the session's {@link ElementCache}, so repeated use on one screen costs a single
+ * findElement; a stale handle ends the screen epoch and the call is retried once with a fresh lookup.
+ */
+public class LazyElement implements WebElement, WrapsElement {
+
+    private final SearchContext context;
+    private final By locator;
+
+    public LazyElement(SearchContext context, By locator) {
+        this.context = context;
+        this.locator = locator;
+    }
+
+    public By getLocator() {
+        return locator;
+    }
+
+    /**
+     * @return the cached handle for this screen, or a freshly found element
+     */
+    @Override
+    public WebElement getWrappedElement() {
+        return ElementCache.isEnabled() ? ElementCache.forContext(context).find(locator) : context.findElement(locator);
+    }
+
+    @Override
+    public void click() {
+        run(WebElement::click);
+        afterNavigation();
+    }
+
+    @Override
+    public void submit() {
+        run(WebElement::submit);
+        afterNavigation();
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        run(element -> element.sendKeys(keysToSend));
+    }
+
+    @Override
+    public void clear() {
+        run(WebElement::clear);
+    }
+
+    @Override
+    public String getTagName() {
+        return call(WebElement::getTagName);
+    }
+
+    @Override
+    public String getDomProperty(String name) {
+        return call(element -> element.getDomProperty(name));
+    }
+
+    @Override
+    public String getDomAttribute(String name) {
+        return call(element -> element.getDomAttribute(name));
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public String getAttribute(String name) {
+        return call(element -> element.getAttribute(name));
+    }
+
+    @Override
+    public boolean isSelected() {
+        return call(WebElement::isSelected);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return call(WebElement::isEnabled);
+    }
+
+    @Override
+    public String getText() {
+        return call(WebElement::getText);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return call(element -> element.findElements(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return call(element -> element.findElement(by));
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return call(WebElement::isDisplayed);
+    }
+
+    @Override
+    public Point getLocation() {
+        return call(WebElement::getLocation);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return call(WebElement::getSize);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return call(WebElement::getRect);
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return call(element -> element.getCssValue(propertyName));
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return call(element -> element.getScreenshotAs(target));
+    }
+
+    private <T> T call(Function<WebElement, T> action) {
+        if (!ElementCache.isEnabled()) {
+            return action.apply(context.findElement(locator));
+        }
+        ElementCache cache = ElementCache.forContext(context);
+        try {
+            return action.apply(cache.find(locator));
+        } catch (StaleElementReferenceException e) {
+            cache.invalidate("stale element " + locator);
+            return action.apply(cache.find(locator));
+        }
+    }
+
+    private void run(Consumer<WebElement> action) {
+        call(element -> {
+            action.accept(element);
+            return null;
+        });
+    }
+
+    private void afterNavigation() {
+        if (ElementCache.isEnabled()) {
+            ElementCache.forContext(context).afterNavigation();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Lazy element for: " + locator;
+    }
+}
@@ -0,0 +1,332 @@
+package utils.locators;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a locator table and {@link PageBinder} for every page class with {@code @FindBy} fields.
+ * For a page {@code TTA_LoginPage} it writes {@code TTA_LoginPage_Locators} in the same package, holding one
+ * {@code By} constant per field and a binder that assigns a {@link LazyElement} to each field, and registers
+ * the binder in META-INF/services for {@link PageBinders}.
+ * <p>
+ * A page is skipped, and left to PageFactory at runtime, when any of its locator fields cannot be bound
+ * this way: private or final fields, {@code List<WebElement>} fields, fields using Appium platform annotations,
+ * {@code @FindBys}/{@code @FindAll}, or un-annotated WebElement fields that PageFactory would bind by name.
+ * <p>
+ * Enabled for test sources only, through {@code annotationProcessors} in pom.xml.
+ */
+@SupportedAnnotationTypes("org.openqa.selenium.support.FindBy")
+public class LocatorTableProcessor extends AbstractProcessor {
+
+    private static final String FIND_BY = "org.openqa.selenium.support.FindBy";
+    private static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+    private static final String SERVICE_FILE = "META-INF/services/" + PageBinder.class.getName();
+
+    private static final Map<String, String> BY_ATTRIBUTES = new LinkedHashMap<>();
+    private static final Map<String, String> BY_HOW = Map.of(
+            "ID", "id",
+            "NAME", "name",
+            "CLASS_NAME", "className",
+            "CSS", "cssSelector",
+            "TAG_NAME", "tagName",
+            "LINK_TEXT", "linkText",
+            "PARTIAL_LINK_TEXT", "partialLinkText",
+            "XPATH", "xpath");
+
+    static {
+        BY_ATTRIBUTES.put("id", "id");
+        BY_ATTRIBUTES.put("name", "name");
+        BY_ATTRIBUTES.put("className", "className");
+        BY_ATTRIBUTES.put("css", "cssSelector");
+        BY_ATTRIBUTES.put("tagName", "tagName");
+        BY_ATTRIBUTES.put("linkText", "linkText");
+        BY_ATTRIBUTES.put("partialLinkText", "partialLinkText");
+        BY_ATTRIBUTES.put("xpath", "xpath");
+    }
+
+    private final Set<String> binders = new TreeSet<>();
+    private final Set<String> processedPages = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+
+        Set<TypeElement> pages = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.FIELD) {
+                    pages.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+        for (TypeElement page : pages) {
+            if (processedPages.add(page.getQualifiedName().toString())) {
+                generate(page);
+            }
+        }
+        // FindBy stays available to other processors
+        return false;
+    }
+
+    private void generate(TypeElement page) {
+        String reason = unsupportedPageReason(page);
+        if (reason != null) {
+            note(page, "No locator table generated for " + page.getQualifiedName() + " (" + reason + "); it will use PageFactory.");
+            return;
+        }
+
+        Map<String, String> constants = new LinkedHashMap<>();
+        for (VariableElement field : locatorFields(page)) {
+            String byExpression = byExpression(field);
+            if (byExpression == null) {
+                note(field, "Unsupported @FindBy on " + page.getSimpleName() + "." + field.getSimpleName() + "; page will use PageFactory.");
+                return;
+            }
+            if (constants.putIfAbsent(field.getSimpleName().toString(), byExpression) != null) {
+                note(field, "Field " + field.getSimpleName() + " is shadowed in " + page.getQualifiedName() + "; page will use PageFactory.");
+                return;
+            }
+        }
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(page).getQualifiedName().toString();
+        String pageName = page.getQualifiedName().toString().substring(packageName.isEmpty() ? 0 : packageName.length() + 1);
+        String binderName = pageName.replace('.', '_') + "_Locators";
+        String qualifiedBinder = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedBinder, page).openWriter()) {
+            writer.write(render(packageName, pageName, binderName, constants));
+            binders.add(qualifiedBinder);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + qualifiedBinder + ": " + e.getMessage(), page);
+        }
+    }
+
+    private String render(String packageName, String pageName, String binderName, Map<String, String> constants) {
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import org.openqa.selenium.By;\n")
+                .append("import org.openqa.selenium.SearchContext;\n")
+                .append("import utils.locators.LazyElement;\n")
+                .append("import utils.locators.PageBinder;\n\n")
+                .append("import javax.annotation.processing.Generated;\n\n")
+                .append("/**\n * Locator table and binder for {@link ").append(pageName).append("}, generated from its @FindBy fields.\n */\n")
+                .append("@Generated(\"").append(LocatorTableProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(binderName).append(" implements PageBinder<").append(pageName).append("> {\n\n");
+
+        constants.forEach((field, by) -> source.append("    public static final By ").append(constantName(field))
+                .append(" = ").append(by).append(";\n"));
+
+        source.append("\n    @Override\n")
+                .append("    public Class<").append(pageName).append("> pageType() {\n")
+                .append("        return ").append(pageName).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public void bind(").append(pageName).append(" page, SearchContext context) {\n");
+        constants.keySet().forEach(field -> source.append("        page.").append(field)
+                .append(" = new LazyElement(context, ").append(constantName(field)).append(");\n"));
+        source.append("    }\n}\n");
+        return source.toString();
+    }
+
+    /**
+     * @return why the page cannot get a generated binder, or null if it can
+     */
+    private String unsupportedPageReason(TypeElement page) {
+        if (page.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "abstract class";
+        }
+        if (page.getModifiers().contains(Modifier.PRIVATE)) {
+            return "private class";
+        }
+        if (page.getNestingKind().isNested() && !page.getModifiers().contains(Modifier.STATIC)) {
+            return "inner class";
+        }
+
+        PackageElement pagePackage = processingEnv.getElementUtils().getPackageOf(page);
+        for (TypeElement type = page; type != null; type = superclassOf(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.STATIC)) {
+                    continue;
+                }
+                boolean findBy = hasAnnotation(field, FIND_BY);
+                boolean otherLocatorAnnotation = field.getAnnotationMirrors().stream()
+                        .map(mirror -> mirror.getAnnotationType().toString())
+                        .anyMatch(name -> !name.equals(FIND_BY) && (name.contains("FindBy") || name.contains("FindAll")));
+                if (otherLocatorAnnotation) {
+                    return "field " + field.getSimpleName() + " uses another locator annotation";
+                }
+                if (!findBy) {
+                    if (isWebElement(field.asType()) || isWebElementList(field.asType())) {
+                        return "field " + field.getSimpleName() + " has no @FindBy";
+                    }
+                    continue;
+                }
+                if (!isWebElement(field.asType())) {
+                    return "field " + field.getSimpleName() + " is not a WebElement";
+                }
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+                    return "field " + field.getSimpleName() + " is private or final";
+                }
+                boolean samePackage = processingEnv.getElementUtils().getPackageOf(type).equals(pagePackage);
+                if (!samePackage && !modifiers.contains(Modifier.PUBLIC)) {
+                    return "inherited field " + field.getSimpleName() + " is not accessible";
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<VariableElement> locatorFields(TypeElement page) {
+        List<VariableElement> fields = new ArrayList<>();
+        for (TypeElement type = page; type != null; type = superclassOf(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC) && hasAnnotation(field, FIND_BY)) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * @return a {@code By.xxx("value")} expression for the field's @FindBy, or null if it cannot be expressed
+     */
+    private String byExpression(VariableElement field) {
+        AnnotationMirror findBy = annotation(field, FIND_BY);
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : findBy.getElementValues().entrySet()) {
+            values.put(entry.getKey().getSimpleName().toString(), entry.getValue().getValue());
+        }
+
+        Object how = values.get("how");
+        Object using = values.get("using");
+        if (how instanceof VariableElement howConstant && !"UNSET".contentEquals(howConstant.getSimpleName())) {
+            String method = BY_HOW.get(howConstant.getSimpleName().toString());
+            return method == null || using == null ? null : "By." + method + "(" + literal(using.toString()) + ")";
+        }
+
+        String expression = null;
+        for (Map.Entry<String, String> attribute : BY_ATTRIBUTES.entrySet()) {
+            Object value = values.get(attribute.getKey());
+            if (value != null && !value.toString().isEmpty()) {
+                if (expression != null) {
+                    // PageFactory rejects more than one strategy as well
+                    return null;
+                }
+                expression = "By." + attribute.getValue() + "(" + literal(value.toString()) + ")";
+            }
+        }
+        return expression;
+    }
+
+    private void writeServiceFile() {
+        if (binders.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String binder : binders) {
+                    writer.write(binder);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return "java.lang.Object".contentEquals(element.getQualifiedName()) ? null : element;
+    }
+
+    private boolean isWebElement(TypeMirror type) {
+        return WEB_ELEMENT.equals(type.toString());
+    }
+
+    private boolean isWebElementList(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((DeclaredType) type).asElement().toString().equals("java.util.List")
+                && ((DeclaredType) type).getTypeArguments().stream().anyMatch(this::isWebElement);
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationType) {
+        return annotation(element, annotationType) != null;
+    }
+
+    private static AnnotationMirror annotation(Element element, String annotationType) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().toString().equals(annotationType)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+    static String constantName(String fieldName) {
+        return fieldName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+    }
+
+    static String literal(String value) {
+        StringBuilder escaped = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.append('"').toString();
+    }
+}
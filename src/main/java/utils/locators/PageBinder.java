@@ -0,0 +1,20 @@
+package utils.locators;
+
+import org.openqa.selenium.SearchContext;
+
+/**
+ * Binds a page's {@code @FindBy} fields without reflection.
+ * Implementations are generated at compile time by {@link LocatorTableProcessor}, one per page class,
+ * and found at runtime through {@link PageBinders}.
+ *
+ * @param <T> the page class
+ */
+public interface PageBinder<T> {
+
+    Class<T> pageType();
+
+    /**
+     * Assigns a {@link LazyElement} to every {@code @FindBy} field of the page.
+     */
+    void bind(T page, SearchContext context);
+}
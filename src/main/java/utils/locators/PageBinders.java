@@ -0,0 +1,52 @@
+package utils.locators;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.SearchContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the generated {@link PageBinder}s, loaded once from META-INF/services.
+ * Pages without a generated binder (e.g. ones using Appium platform annotations) are left to PageFactory.
+ */
+public final class PageBinders {
+
+    private static final Logger logger = LogManager.getLogger(PageBinders.class);
+
+    private static final Map<Class<?>, PageBinder<?>> binders = load();
+
+    private PageBinders() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Binds the page's locator fields with its generated binder.
+     *
+     * @return false if the page has no generated binder and needs PageFactory instead
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> boolean bind(T page, SearchContext context) {
+        PageBinder<T> binder = (PageBinder<T>) binders.get(page.getClass());
+        if (binder == null) {
+            return false;
+        }
+        binder.bind(page, context);
+        return true;
+    }
+
+    public static boolean hasBinder(Class<?> pageType) {
+        return binders.containsKey(pageType);
+    }
+
+    private static Map<Class<?>, PageBinder<?>> load() {
+        Map<Class<?>, PageBinder<?>> loaded = new HashMap<>();
+        for (PageBinder<?> binder : ServiceLoader.load(PageBinder.class)) {
+            loaded.put(binder.pageType(), binder);
+        }
+        logger.info("Loaded {} generated page binder(s).", loaded.size());
+        return loaded;
+    }
+}
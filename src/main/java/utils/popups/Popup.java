@@ -0,0 +1,72 @@
+package utils.popups;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+import utils.HierarchySnapshot;
+import utils.gestures.GestureComposer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A known dialog: how to recognise it on a hierarchy snapshot and how to dismiss it.
+ *
+ * @param name      name used in logs and by steps that dismiss it explicitly
+ * @param isPresent signature checked against a snapshot, without a round trip
+ * @param dismiss   action run when the signature matches
+ * @param locators  locators of the popup's own elements, so waits for them are not interrupted by the watcher
+ */
+public record Popup(String name, Predicate<HierarchySnapshot> isPresent, BiConsumer<AppiumDriver, HierarchySnapshot> dismiss,
+                    List<By> locators) {
+
+    /**
+     * Popup present when any signature locator is visible, dismissed by tapping the centre of the
+     * first visible {@code dismissTarget} taken from the same snapshot.
+     */
+    public static Popup tapToDismiss(String name, By dismissTarget, By... signature) {
+        List<By> locators = Arrays.asList(signature);
+        return new Popup(name,
+                snapshot -> locators.stream().anyMatch(snapshot::isDisplayed) && snapshot.isDisplayed(dismissTarget),
+                (driver, snapshot) -> tapCentre(driver, snapshot, dismissTarget),
+                Stream.concat(locators.stream(), Stream.of(dismissTarget)).toList());
+    }
+
+    /**
+     * Popup present when any signature locator is visible, dismissed by tapping the centre of the screen
+     * (for tooltips and overlays that close on an outside tap).
+     */
+    public static Popup tapOutsideToDismiss(String name, By... signature) {
+        List<By> locators = Arrays.asList(signature);
+        return new Popup(name,
+                snapshot -> locators.stream().anyMatch(snapshot::isDisplayed),
+                (driver, snapshot) -> GestureComposer.on(driver).tapCenter().perform(),
+                locators);
+    }
+
+    /**
+     * @return this popup, recognised only while none of {@code others} is visible; tells apart dialogs
+     *         that share a dismiss button regardless of registration order
+     */
+    public Popup unless(By... others) {
+        List<By> excluded = Arrays.asList(others);
+        return new Popup(name, snapshot -> isPresent.test(snapshot) && excluded.stream().noneMatch(snapshot::isDisplayed),
+                dismiss, locators);
+    }
+
+    private static void tapCentre(AppiumDriver driver, HierarchySnapshot snapshot, By target) {
+        Optional<HierarchySnapshot.Node> node = snapshot.findAll(target).stream()
+                .filter(HierarchySnapshot.Node::isVisible)
+                .findFirst();
+        if (node.isPresent() && node.get().bounds() != null) {
+            Rectangle bounds = node.get().bounds();
+            GestureComposer.on(driver).tap(bounds.getX() + bounds.getWidth() / 2, bounds.getY() + bounds.getHeight() / 2).perform();
+        } else {
+            driver.findElement(target).click();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package utils.popups;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Known popups per app (the "app" log context, e.g. TTA), checked in registration order.
+ * Popups registered on demand are dismissed only by steps that ask for them, never by the background watcher.
+ */
+public final class PopupRegistry {
+
+    private static final Map<String, List<Popup>> popupsByApp = new ConcurrentHashMap<>();
+    private static final Map<String, List<Popup>> onDemandByApp = new ConcurrentHashMap<>();
+
+    private PopupRegistry() {
+        // Prevent instantiation
+    }
+
+    public static void register(String app, Popup popup) {
+        add(popupsByApp, app, popup);
+    }
+
+    /**
+     * Registers a popup whose dismiss action is unsafe to run in the middle of unrelated waits,
+     * e.g. one closed by tapping outside it.
+     */
+    public static void registerOnDemand(String app, Popup popup) {
+        add(onDemandByApp, app, popup);
+    }
+
+    /**
+     * @return the popups the background watcher checks for
+     */
+    public static List<Popup> forApp(String app) {
+        return app == null ? List.of() : popupsByApp.getOrDefault(app.toLowerCase(), List.of());
+    }
+
+    public static Popup get(String app, String name) {
+        List<Popup> onDemand = app == null ? List.of() : onDemandByApp.getOrDefault(app.toLowerCase(), List.of());
+        return Stream.concat(forApp(app).stream(), onDemand.stream())
+                .filter(popup -> popup.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No popup '" + name + "' registered for app " + app));
+    }
+
+    private static void add(Map<String, List<Popup>> registry, String app, Popup popup) {
+        List<Popup> popups = registry.computeIfAbsent(app.toLowerCase(), key -> new CopyOnWriteArrayList<>());
+        popups.removeIf(existing -> existing.name().equals(popup.name()));
+        popups.add(popup);
+    }
+}
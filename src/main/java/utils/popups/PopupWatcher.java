@@ -0,0 +1,223 @@
+package utils.popups;
+
+import io.appium.java_client.AppiumDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.By;
+import utils.ConfigReader;
+import utils.HierarchySnapshot;
+import utils.IdleBudget;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dismisses registered popups for the current app whenever they show up, one watcher per driver session.
+ * {@link utils.WaitUtils} calls it between polls that did not succeed (at most every
+ * {@code popup.watch.interval.millis}, default 1000) and with the snapshots it already fetched, so a popup
+ * covering the element being waited for is closed without a dedicated step or a fixed delay.
+ * <p>
+ * Steps that expect a specific popup use {@link #dismissIfPresent(String, int)}, which returns as soon as
+ * the popup is gone or was already dismissed by the watcher, and does not fail when it never appears.
+ * Disable the background checks with {@code popup.watcher.enabled=false}.
+ */
+public final class PopupWatcher {
+
+    private static final Logger logger = LogManager.getLogger(PopupWatcher.class);
+
+    private static final boolean ENABLED = ConfigReader.getInstance().getBoolean("popup.watcher.enabled", true);
+    private static final long INTERVAL_MILLIS = ConfigReader.getInstance().getLong("popup.watch.interval.millis", 1000);
+    private static final long POLL_MILLIS = ConfigReader.getInstance().getLong("popup.poll.millis", 300);
+
+    private static final Map<AppiumDriver, PopupWatcher> watchers = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final AtomicLong checks = new AtomicLong();
+    private static final Map<String, AtomicLong> dismissals = new ConcurrentHashMap<>();
+
+    private final AppiumDriver driver;
+    private final Set<String> dismissed = ConcurrentHashMap.newKeySet();
+    private volatile long lastCheckMillis;
+    private boolean dismissing;
+
+    private PopupWatcher(AppiumDriver driver) {
+        this.driver = driver;
+    }
+
+    public static PopupWatcher forDriver(AppiumDriver driver) {
+        return watchers.computeIfAbsent(driver, PopupWatcher::new);
+    }
+
+    /**
+     * @return true if the locator belongs to a popup registered for the current app; waits for such
+     *         locators run without the watcher, which would otherwise dismiss what they wait for
+     */
+    public static boolean isPopupLocator(By locator) {
+        return locator != null && popups().stream().anyMatch(popup -> popup.locators().contains(locator));
+    }
+
+    /**
+     * Drops the watcher of a session that is being quit. Needed because the watcher holds its driver strongly,
+     * so the weak key alone never lets the entry go.
+     */
+    public static void remove(AppiumDriver driver) {
+        watchers.remove(driver);
+    }
+
+    /**
+     * Background check between polls; skipped when disabled, when no popups are registered for the app,
+     * or when the last check was less than the watch interval ago.
+     *
+     * @return names of the popups dismissed
+     */
+    public List<String> checkIfDue() {
+        if (!ENABLED || popups().isEmpty() || System.currentTimeMillis() - lastCheckMillis < INTERVAL_MILLIS) {
+            return List.of();
+        }
+        try {
+            return dismissPresent(HierarchySnapshot.capture(driver));
+        } catch (RuntimeException e) {
+            logger.debug("Popup check skipped: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Checks every registered popup against a snapshot that was taken anyway and dismisses those present.
+     *
+     * @return names of the popups dismissed
+     */
+    public synchronized List<String> dismissPresent(HierarchySnapshot snapshot) {
+        if (!ENABLED || dismissing) {
+            return List.of();
+        }
+        lastCheckMillis = System.currentTimeMillis();
+        checks.incrementAndGet();
+
+        List<String> closed = new ArrayList<>();
+        for (Popup popup : popups()) {
+            if (isPresent(popup, snapshot)) {
+                dismiss(popup, snapshot);
+                closed.add(popup.name());
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Waits up to {@code timeoutSeconds} for the named popup and dismisses it. Other registered popups seen
+     * while waiting are dismissed as well.
+     *
+     * @return true if the popup was dismissed now or earlier in this session; false if it never appeared
+     */
+    public boolean dismissIfPresent(String name, int timeoutSeconds) {
+        Popup target = PopupRegistry.get(currentApp(), name);
+        if (dismissed.contains(name)) {
+            logger.info("Popup '{}' was already dismissed in this session.", name);
+            return true;
+        }
+
+        long deadline = System.currentTimeMillis() + timeoutSeconds * 1000L;
+        while (true) {
+            // Only the check holds the monitor; the sleep between polls must not block the watcher
+            if (dismissOnce(target) || dismissed.contains(name)) {
+                return true;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                logger.info("Popup '{}' did not appear within {} seconds; continuing.", name, timeoutSeconds);
+                return false;
+            }
+            long sleepStart = System.currentTimeMillis();
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                IdleBudget.record(IdleBudget.Kind.WAIT, "popup:" + name, System.currentTimeMillis() - sleepStart);
+            }
+        }
+    }
+
+    /**
+     * One poll of {@link #dismissIfPresent}: dismisses every registered popup on a fresh snapshot.
+     *
+     * @return true if the target popup was among them
+     */
+    private synchronized boolean dismissOnce(Popup target) {
+        HierarchySnapshot snapshot = HierarchySnapshot.capture(driver);
+        lastCheckMillis = System.currentTimeMillis();
+        checks.incrementAndGet();
+        // An on-demand target is not among the watched popups, so it is checked first
+        List<Popup> candidates = popups().contains(target) ? popups() : concat(target, popups());
+        for (Popup popup : candidates) {
+            if (isPresent(popup, snapshot)) {
+                dismiss(popup, snapshot);
+                if (popup == target) {
+                    return true;
+                }
+                // Another popup was covering the screen; look again on a fresh snapshot
+                snapshot = HierarchySnapshot.capture(driver);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forgets which popups were dismissed, so a pooled session starts each scenario with a clean slate.
+     */
+    public void resetForScenario() {
+        dismissed.clear();
+    }
+
+    /**
+     * Logs how often each popup was dismissed. Called once after all scenarios.
+     */
+    public static void logSummary() {
+        logger.info("Popup watcher summary - enabled: {}, checks: {}, dismissals: {}", ENABLED, checks.get(), dismissals);
+    }
+
+    private boolean isPresent(Popup popup, HierarchySnapshot snapshot) {
+        try {
+            return popup.isPresent().test(snapshot);
+        } catch (Exception e) {
+            logger.debug("Popup signature '{}' could not be checked: {}", popup.name(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void dismiss(Popup popup, HierarchySnapshot snapshot) {
+        dismissing = true;
+        try {
+            popup.dismiss().accept(driver, snapshot);
+            dismissed.add(popup.name());
+            dismissals.computeIfAbsent(popup.name(), key -> new AtomicLong()).incrementAndGet();
+            logger.info("Dismissed popup '{}'.", popup.name());
+        } catch (Exception e) {
+            logger.warn("Failed to dismiss popup '{}': {}", popup.name(), e.getMessage());
+        } finally {
+            dismissing = false;
+        }
+    }
+
+    private static List<Popup> concat(Popup first, List<Popup> rest) {
+        List<Popup> all = new ArrayList<>(rest.size() + 1);
+        all.add(first);
+        all.addAll(rest);
+        return all;
+    }
+
+    private static List<Popup> popups() {
+        return PopupRegistry.forApp(currentApp());
+    }
+
+    private static String currentApp() {
+        return ThreadContext.get("app");
+    }
+}
@@ -4,6 +4,7 @@ import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.android.AndroidDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import utils.IdleBudget;
 
 import java.net.URL;
 
@@ -44,7 +45,7 @@ public class BrowserStackTest {
                     new URL("https://hub-cloud.browserstack.com/wd/hub"), caps
             );
 
-            Thread.sleep(5000); // Let the app launch
+            IdleBudget.sleep("BrowserStackTest", 5000); // Let the app launch
 
             System.out.println("Launched App on BrowserStack successfully");
 
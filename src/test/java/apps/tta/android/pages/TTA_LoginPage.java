@@ -1,19 +1,25 @@
 package apps.tta.android.pages;
 
+import apps.tta.android.popups.TTA_Popups;
 import base.TestBase;
 import driver.DriverManager;
 import io.appium.java_client.AppiumDriver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import utils.WaitUtils;
+import utils.LocatorMatch;
+import utils.popups.PopupWatcher;
 
 public class TTA_LoginPage extends TestBase {
 
     private static final Logger logger = LogManager.getLogger(TTA_LoginPage.class);
 
-    @FindBy(id = "com.netway.phone.advice:id/etvMobileNumber")
+    private static final String MOBILE_INPUT_ID = "com.netway.phone.advice:id/etvMobileNumber";
+    private static final String SIGN_UP_BUTTON_ID = "com.netway.phone.advice:id/account";
+
+    @FindBy(id = MOBILE_INPUT_ID)
     WebElement mobileInputField;
 
     @FindBy(id = "com.netway.phone.advice:id/tvLogin")
@@ -22,21 +28,9 @@ public class TTA_LoginPage extends TestBase {
     @FindBy(id = "com.netway.phone.advice:id/lineField")
     WebElement otpInputField;
 
-    @FindBy(id = "com.netway.phone.advice:id/account")
+    @FindBy(id = SIGN_UP_BUTTON_ID)
     WebElement signUpButtonLocator;
 
-    @FindBy(id = "com.netway.phone.advice:id/tvRecommendationCategory")
-    WebElement clickOutsideOfYouCanChangeTheAppLanguageFromHerePopup;
-
-    @FindBy(id = "com.netway.phone.advice:id/close")
-    WebElement closeLocationAndNotificationPopup;
-
-    @FindBy(id = "com.netway.phone.advice:id/tvClose")
-    WebElement closeWantToContinueYourConsultationPopup;
-
-    @FindBy(id = "com.netway.phone.advice:id/tvClose")
-    WebElement closePopularChoicePopup;
-
 
     public TTA_LoginPage(AppiumDriver driver) {
         super(driver);
@@ -46,28 +40,32 @@ public class TTA_LoginPage extends TestBase {
     /**
      * Checks if we are on the login page.
      * If not, attempts to navigate from the home screen.
+     * Waits for whichever of the two screens shows first, checking both on one page source per poll.
      */
     public void isLoginScreen() {
 
         logger.info("Checking if we are on the Login screen...");
 
+        By loginScreen = By.id(MOBILE_INPUT_ID);
+        LocatorMatch match = waitUtils().waitForAnyElementVisible(new By[]{loginScreen, By.id(SIGN_UP_BUTTON_ID)}, 10);
+        if (match != null && match.locator().equals(loginScreen)) {
+            logger.info("We are already on Login screen.");
+            return;
+        }
+
+        logger.info("We are NOT on Login screen. Navigating from Home screen...");
         try {
-            if (mobileInputField.isDisplayed()) {
-                logger.info("We are already on Login screen.");
-            }
-        } catch (Exception e) {
-            logger.info("We are NOT on Login screen. Navigating from Home screen...");
-            try {
-                waitUtils().waitForElementToBeClickable(signUpButtonLocator, 10);
-                signUpButtonLocator.click();
-                logger.info("Clicked Account button on Home screen.");
-
-                waitUtils().waitForElementToBeVisible(mobileInputField, 10);
-                logger.info("Login screen loaded after clicking Account button.");
-            } catch (Exception ex) {
-                logger.error("Unable to navigate to Login screen. Possibly already logged in or UI changed.", ex);
-                DriverManager.getDriver().quit();
+            if (match == null) {
+                throw new RuntimeException("Neither the Login screen nor the Account button became visible.");
             }
+            match.element().click();
+            logger.info("Clicked Account button on Home screen.");
+
+            waitUtils().waitForElementToBeVisible(mobileInputField, 10);
+            logger.info("Login screen loaded after clicking Account button.");
+        } catch (Exception ex) {
+            logger.error("Unable to navigate to Login screen. Possibly already logged in or UI changed.", ex);
+            DriverManager.getDriver().quit();
         }
     }
 
@@ -92,34 +90,26 @@ public class TTA_LoginPage extends TestBase {
     }
 
 
+    // Post-login popups are dismissed by the popup watcher when present; these steps no longer fail when one does not show
+
     public void clickOutsideOfYouCanChangeTheAppLanguageFromHerePopup() {
-        WaitUtils.executionDelay(13);
-        try {
-            logger.info("Clicked outside of change language popup - in one attempt");
-            mobileActions().tapCenterOfScreen();
-        } catch (Exception e) {
-            logger.info("Clicked outside of change language popup - in second attempt");
-            mobileActions().tapCenterOfScreen();
-        }
+        popupWatcher().dismissIfPresent(TTA_Popups.LANGUAGE_TOOLTIP, 15);
     }
 
-
     public void closeLocationAndNotificationPopup() {
-        waitUtils().waitForElementToBeClickable(closeLocationAndNotificationPopup, 5);
-        closeLocationAndNotificationPopup.click();
-        logger.info("Clicked on close popup - location and notification popup.");
+        popupWatcher().dismissIfPresent(TTA_Popups.LOCATION_AND_NOTIFICATION, 5);
     }
 
     public void closeWantToContinueYourConsultationPopup() {
-        waitUtils().waitForElementToBeClickable(closeWantToContinueYourConsultationPopup, 5);
-        closeWantToContinueYourConsultationPopup.click();
-        logger.info("Clicked on close popup - continue your consultation popup");
+        popupWatcher().dismissIfPresent(TTA_Popups.CONTINUE_CONSULTATION, 5);
     }
 
     public void closePopularChoicePopup() {
-        waitUtils().waitForElementToBeClickable(closePopularChoicePopup, 5);
-        closeWantToContinueYourConsultationPopup.click();
-        logger.info("Clicked on closed popular choice popup");
+        popupWatcher().dismissIfPresent(TTA_Popups.POPULAR_CHOICE, 5);
+    }
+
+    private PopupWatcher popupWatcher() {
+        return PopupWatcher.forDriver(driver());
     }
 
 
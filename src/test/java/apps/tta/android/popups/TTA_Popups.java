@@ -0,0 +1,45 @@
+package apps.tta.android.popups;
+
+import org.openqa.selenium.By;
+import utils.popups.Popup;
+import utils.popups.PopupRegistry;
+
+/**
+ * Signatures and dismiss actions for the dialogs TTA shows after login.
+ * The consultation and popular-choice dialogs share the tvClose button; popular choice is recognised
+ * only while the consultation dialog's tvYes/tvLater are absent.
+ */
+public final class TTA_Popups {
+
+    public static final String APP = "TTA";
+
+    public static final String LANGUAGE_TOOLTIP = "language-tooltip";
+    public static final String LOCATION_AND_NOTIFICATION = "location-and-notification";
+    public static final String CONTINUE_CONSULTATION = "continue-consultation";
+    public static final String POPULAR_CHOICE = "popular-choice";
+
+    private static final String ID = "com.netway.phone.advice:id/";
+
+    private TTA_Popups() {
+        // Prevent instantiation
+    }
+
+    public static void register() {
+        // "You can change the app language from here" tooltip, closed by tapping the screen centre; only on
+        // request, since the watcher would otherwise tap whatever is there in the middle of unrelated waits
+        PopupRegistry.registerOnDemand(APP, Popup.tapOutsideToDismiss(LANGUAGE_TOOLTIP,
+                By.id(ID + "tvRecommendationCategory")));
+
+        // "Don't miss out on offers!" location and notification prompt
+        PopupRegistry.register(APP, Popup.tapToDismiss(LOCATION_AND_NOTIFICATION, By.id(ID + "close"),
+                By.id(ID + "mb_allow_access"), By.id(ID + "maybe_later")));
+
+        // "Want to continue your consultation?"
+        PopupRegistry.register(APP, Popup.tapToDismiss(CONTINUE_CONSULTATION, By.id(ID + "tvClose"),
+                By.id(ID + "tvYes"), By.id(ID + "tvLater")));
+
+        // "Popular choice" sheet
+        PopupRegistry.register(APP, Popup.tapToDismiss(POPULAR_CHOICE, By.id(ID + "tvClose"),
+                By.id(ID + "tvClose")).unless(By.id(ID + "tvYes"), By.id(ID + "tvLater")));
+    }
+}
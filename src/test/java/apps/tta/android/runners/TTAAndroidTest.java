@@ -18,6 +18,7 @@ import org.testng.annotations.Test;
                 "json:target/jsonReports/cucumber-report.json",
                 "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:",
                 "rerun:target/failed_scenarios.txt",
+                "listeners.IdleBudgetPlugin",
         },
 //        tags = "@Login_Promo_001"
         tags = "@Login_Repeat_001"
@@ -26,8 +27,10 @@ import org.testng.annotations.Test;
 @Test
 public class TTAAndroidTest extends AbstractTestNGCucumberTests {
 
+    // Thread count comes from listeners.ParallelExecutionListener (one worker per device), registered
+    // through META-INF/services so suite and class runs alike pick it up
     @Override
-    @DataProvider(parallel = false)
+    @DataProvider(parallel = true)
     public Object[][] scenarios() {
         return super.scenarios();
     }
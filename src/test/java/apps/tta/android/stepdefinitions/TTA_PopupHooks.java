@@ -0,0 +1,12 @@
+package apps.tta.android.stepdefinitions;
+
+import apps.tta.android.popups.TTA_Popups;
+import io.cucumber.java.BeforeAll;
+
+public class TTA_PopupHooks {
+
+    @BeforeAll
+    public static void registerPopups() {
+        TTA_Popups.register();
+    }
+}
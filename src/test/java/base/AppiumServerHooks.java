@@ -1,10 +1,21 @@
 package base;
 
 import driver.AppiumServerManager;
+import driver.DriverSessionPool;
+import driver.SessionTimings;
+import driver.readiness.AppReadinessWaiter;
 import io.cucumber.java.AfterAll;
 import io.cucumber.java.BeforeAll;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import utils.AdaptivePolling;
+import utils.ConfigReader;
+import utils.IdleBudget;
+import utils.LocatorProfileStore;
+import utils.ScreenRecorder;
+import utils.ScreenshotStore;
+import utils.locators.ElementCache;
+import utils.popups.PopupWatcher;
 
 public class AppiumServerHooks {
 
@@ -18,6 +29,18 @@ public class AppiumServerHooks {
 
     @AfterAll
     public static void afterAll() {
+        logger .info("🛑 Closing pooled driver sessions after all scenarios...");
+        DriverSessionPool.getInstance().shutdown();
+        AppReadinessWaiter.logSummary();
+        SessionTimings.logSummary();
+        AdaptivePolling.logSummary();
+        LocatorProfileStore.getInstance().logSummaryAndSave();
+        ElementCache.logSummary();
+        PopupWatcher.logSummary();
+        IdleBudget.logSummary();
+        ScreenshotStore.logSummaryAndSave();
+        ScreenRecorder.awaitWrites(ConfigReader.getInstance().getLong("recording.write.timeout.seconds", 120));
+
         logger .info("🛑 Stopping Appium Server after all scenarios...");
         AppiumServerManager.getInstance().stopServer();
     }
@@ -1,15 +1,24 @@
 package base;
 
-import driver.DriverFactory;
+import driver.CapabilityReader;
 import driver.DriverManager;
+import driver.SessionTimings;
+import driver.readiness.AppReadinessWaiter;
 import io.appium.java_client.android.AndroidDriver;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import utils.ConfigReader;
+import utils.IdleBudget;
 import utils.LogContextUtil;
-import utils.WaitUtils;
+import utils.ScreenRecorder;
+import utils.ScreenshotUtil;
+import utils.popups.PopupWatcher;
+
+import java.nio.file.Path;
 
 public class Hooks {
 
@@ -23,19 +32,44 @@ public class Hooks {
 
             logger.info("=== BEFORE SCENARIO: {} ===", scenario.getName());
 
-            // Create driver using factory
-            AndroidDriver driver = new DriverFactory().createDriver();
-            DriverManager.setDriver(driver);
-
-            WaitUtils.executionDelay(10);
+            // The session is leased when a step first needs the driver; UI-free scenarios never create one
+            DriverManager.setLazyInitializer(() -> startSession(scenario));
 
-            logger.info("Driver initialized and app launch ready.");
+            if (!ConfigReader.getInstance().getBoolean("driver.lazy.enabled", true)) {
+                DriverManager.getDriver();
+            }
         } catch (Exception exception) {
             logger.error("Error during setup for scenario: {}", scenario.getName(), exception);
             throw exception;
         }
     }
 
+    /**
+     * Leases a warm session from the pool and waits for the app to be usable.
+     */
+    private AndroidDriver startSession(Scenario scenario) {
+        long leaseStart = System.currentTimeMillis();
+        AndroidDriver driver = DriverManager.acquireDriver();
+        SessionTimings.record(driver, "lease", System.currentTimeMillis() - leaseStart);
+
+        // Scopes locator profiles and log lines to the device and app build
+        ThreadContext.put("device", CapabilityReader.getDeviceId(driver.getCapabilities()));
+        ThreadContext.put("build", CapabilityReader.getAppBuild(driver.getCapabilities()));
+        PopupWatcher.forDriver(driver).resetForScenario();
+        ScreenRecorder.start(driver, scenario.getName());
+
+        long readyStart = System.currentTimeMillis();
+        if (AppReadinessWaiter.waitUntilReady(driver)) {
+            logger.info("Driver initialized and app launch ready.");
+        } else {
+            logger.warn("Driver initialized but app did not report ready; continuing with scenario.");
+        }
+        SessionTimings.record(driver, "app-ready", System.currentTimeMillis() - readyStart);
+
+        scenario.log("Session " + driver.getSessionId() + " timings (ms): " + SessionTimings.takeLeaseTimings(driver));
+        return driver;
+    }
+
     @After
     @SuppressWarnings("ConstantConditions")
     public void tearDown(Scenario scenario) {
@@ -43,13 +77,35 @@ public class Hooks {
             logger.info("=== AFTER SCENARIO: {} ===", scenario.getName());
             logger.info("Scenario status: {}", scenario.getStatus());
 
-            if (DriverManager.getDriver() != null) {
-                DriverManager.getDriver().quit();
-                logger.info("AndroidDriver quit successfully.");
+            String idleTime = IdleBudget.describeScenario();
+            if (idleTime != null) {
+                scenario.log(idleTime);
+            }
+
+            if (DriverManager.hasDriver()) {
+                // A failed scenario may have crashed the app or wedged the session; it is not pooled again
+                boolean healthy = !scenario.isFailed();
+                try {
+                    Path video = ScreenRecorder.stop(DriverManager.getDriver(), scenario.isFailed());
+                    if (video != null) {
+                        // Rendered as a link in the Extent report, plain text elsewhere
+                        scenario.log("Screen recording: <a href='" + video.toUri() + "'>" + video.getFileName() + "</a>");
+                    }
+                } catch (RuntimeException e) {
+                    healthy = false;
+                    logger.error("Error stopping the screen recording of scenario: {}", scenario.getName(), e);
+                } finally {
+                    // Always handed back, or its device, lease and server mark would leak until the lease times out
+                    DriverManager.releaseDriver(healthy);
+                    logger.info("Driver session released to pool (healthy: {}).", healthy);
+                }
+            } else {
+                logger.info("Scenario did not use the driver; no session was created.");
             }
         } catch (Exception e) {
             logger.error("Error during teardown of scenario: {}", scenario.getName(), e);
         } finally {
+            ScreenshotUtil.flush();
             DriverManager.unload();
             LogContextUtil.clearLogContext();
             logger.info("Thread context and driver cleaned up.");
@@ -0,0 +1,81 @@
+package base;
+
+import driver.DriverManager;
+import io.appium.java_client.AppiumDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+import utils.MobileActions;
+import utils.WaitUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Scenario-scoped holder for helpers and page objects.
+ * Cucumber's picocontainer creates one instance per scenario and injects it into every step definition
+ * class that takes it in its constructor, so all steps of a scenario share the same helpers and pages.
+ * Everything is created on first use, which keeps UI-free scenarios from starting a driver session.
+ */
+public class ScenarioContext {
+
+    private static final Logger logger = LogManager.getLogger(ScenarioContext.class);
+
+    private final Map<Class<?>, Object> pages = new HashMap<>();
+    private AppiumDriver driver;
+    private WaitUtils waitUtils;
+    private MobileActions mobileActions;
+
+    /**
+     * @return the scenario's driver, creating the session on first call
+     */
+    public AppiumDriver driver() {
+        AppiumDriver current = DriverManager.getDriver();
+        if (current != driver) {
+            // A replaced session invalidates everything built on the old one
+            driver = current;
+            waitUtils = null;
+            mobileActions = null;
+            pages.clear();
+        }
+        return driver;
+    }
+
+    public WaitUtils waitUtils() {
+        AppiumDriver current = driver();
+        if (waitUtils == null) {
+            waitUtils = new WaitUtils(current);
+        }
+        return waitUtils;
+    }
+
+    public MobileActions mobileActions() {
+        AppiumDriver current = driver();
+        if (mobileActions == null) {
+            mobileActions = new MobileActions(current);
+        }
+        return mobileActions;
+    }
+
+    /**
+     * Returns the scenario's instance of a page, building it with {@code factory} the first time.
+     *
+     * @param type    page class, used as the cache key
+     * @param factory page constructor, e.g. {@code TTA_LoginPage::new}
+     */
+    public <T> T page(Class<T> type, Function<AppiumDriver, T> factory) {
+        AppiumDriver current = driver();
+        Object page = pages.get(type);
+        if (page == null) {
+            page = factory.apply(current);
+            pages.put(type, page);
+            logger.debug("Page {} created for this scenario.", type.getSimpleName());
+        }
+        return type.cast(page);
+    }
+
+    public ConfigReader config() {
+        return ConfigReader.getInstance();
+    }
+}
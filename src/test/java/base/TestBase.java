@@ -9,9 +9,11 @@ import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.DeviceProfile;
 import utils.MobileActions;
 import utils.ScreenshotUtil;
 import utils.WaitUtils;
+import utils.locators.PageBinders;
 
 import java.time.Duration;
 
@@ -20,9 +22,16 @@ public abstract class TestBase {
     protected final Logger logger = LogManager.getLogger(this.getClass());
     protected AppiumDriver driver;
 
+    private AndroidDriver androidDriver;
+    private WaitUtils waitUtils;
+    private MobileActions mobileActions;
+
     public TestBase(AppiumDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(new AppiumFieldDecorator(this.driver), this);
+        // Generated locator tables bind without reflection; pages the processor skipped use PageFactory
+        if (!PageBinders.bind(this, this.driver)) {
+            PageFactory.initElements(new AppiumFieldDecorator(this.driver), this);
+        }
         logger.debug("Initialized page: {}", this.getClass().getSimpleName());
     }
 
@@ -31,23 +40,37 @@ public abstract class TestBase {
         return DriverManager.getDriver();
     }
 
-    // Method to safely return AndroidDriver instance
+    // Method to safely return AndroidDriver instance; the platform is checked once per session
     protected AndroidDriver androidDriver() {
-        AppiumDriver driver = driver();  // Get the generic AppiumDriver
-        if (driver instanceof AndroidDriver) {
-            return (AndroidDriver) driver;  // Safe cast if it's an instance of AndroidDriver
-        } else {
-            logger.error("Driver is not an instance of AndroidDriver.");
-            throw new RuntimeException("Driver is not of type AndroidDriver.");
+        AppiumDriver current = driver();
+        if (current != androidDriver) {
+            if (!deviceProfile().isAndroid()) {
+                logger.error("Driver is not an instance of AndroidDriver.");
+                throw new RuntimeException("Driver is not of type AndroidDriver.");
+            }
+            androidDriver = (AndroidDriver) current;
         }
+        return androidDriver;
+    }
+
+    // Geometry and platform facts, read once per session
+    protected DeviceProfile deviceProfile() {
+        return DeviceProfile.of(driver());
     }
 
+    // Helpers are built once per page; pages are cached per scenario by ScenarioContext
     protected WaitUtils waitUtils() {
-        return new WaitUtils(androidDriver());  // Use AndroidDriver here
+        if (waitUtils == null) {
+            waitUtils = new WaitUtils(androidDriver());
+        }
+        return waitUtils;
     }
 
     protected MobileActions mobileActions() {
-        return new MobileActions(androidDriver());  // Use AndroidDriver here
+        if (mobileActions == null) {
+            mobileActions = new MobileActions(androidDriver());
+        }
+        return mobileActions;
     }
 
     protected void captureScreenshot(String fileName) {
@@ -0,0 +1,107 @@
+package benchmarks;
+
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactory;
+import utils.locators.PageBinders;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares page initialization through PageFactory with {@link AppiumFieldDecorator} against the
+ * generated locator-table binder. The page mirrors the @FindBy fields of TTA_LoginPage.
+ * No element is looked up in either path, so only binding cost is measured.
+ * <p>
+ * Run with: {@code java -cp <test classpath> benchmarks.PageBindingBenchmark}, or through
+ * {@code org.openjdk.jmh.Main PageBindingBenchmark -prof gc} to include allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PageBindingBenchmark {
+
+    private final SearchContext context = new UnreachableSearchContext();
+
+    @Benchmark
+    public LoginScreen pageFactory() {
+        LoginScreen page = new LoginScreen();
+        PageFactory.initElements(new AppiumFieldDecorator(context), page);
+        return page;
+    }
+
+    @Benchmark
+    public LoginScreen generatedBinder() {
+        LoginScreen page = new LoginScreen();
+        if (!PageBinders.bind(page, context)) {
+            throw new IllegalStateException("No generated binder for " + LoginScreen.class.getName());
+        }
+        return page;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PageBindingBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    public static class LoginScreen {
+
+        @FindBy(id = "com.netway.phone.advice:id/etvMobileNumber")
+        WebElement mobileInputField;
+
+        @FindBy(id = "com.netway.phone.advice:id/tvLogin")
+        WebElement loginButton;
+
+        @FindBy(id = "com.netway.phone.advice:id/lineField")
+        WebElement otpInputField;
+
+        @FindBy(id = "com.netway.phone.advice:id/account")
+        WebElement signUpButtonLocator;
+
+        @FindBy(id = "com.netway.phone.advice:id/tvRecommendationCategory")
+        WebElement recommendationCategory;
+
+        @FindBy(id = "com.netway.phone.advice:id/close")
+        WebElement closeButton;
+
+        @FindBy(id = "com.netway.phone.advice:id/tvClose")
+        WebElement closeConsultationButton;
+
+        @FindBy(id = "com.netway.phone.advice:id/tvClose")
+        WebElement closePopularChoiceButton;
+    }
+
+    /**
+     * Binding never searches, so a context without a device is enough.
+     */
+    private static final class UnreachableSearchContext implements SearchContext {
+
+        @Override
+        public List<WebElement> findElements(By by) {
+            return List.of();
+        }
+
+        @Override
+        public WebElement findElement(By by) {
+            throw new NoSuchElementException("Benchmark context has no elements: " + by);
+        }
+    }
+}
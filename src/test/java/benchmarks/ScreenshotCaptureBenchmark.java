@@ -0,0 +1,123 @@
+package benchmarks;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import utils.ScreenshotUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time a step spends taking a screenshot: the previous synchronous path (temp file from the driver,
+ * copy, SimpleDateFormat per call) against {@link ScreenshotUtil}, where the step only fetches the
+ * base64 payload and a background writer decodes and writes it. {@code asyncWithFlush} also waits
+ * for the write, showing the total work is not hidden, only moved off the test thread.
+ * The driver is a stub returning a payload the size of a phone screenshot, different on every call so that
+ * {@link utils.ScreenshotStore} writes each one instead of linking to an earlier blob. Encoding the payload
+ * is part of every benchmark's time, standing in for the server response.
+ * <p>
+ * Run from the project root (ScreenshotUtil reads config.properties) with:
+ * {@code java -cp <test classpath> benchmarks.ScreenshotCaptureBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ScreenshotCaptureBenchmark {
+
+    private static final int PAYLOAD_BYTES = 600 * 1024;
+
+    private TakesScreenshot driver;
+    private Path directory;
+    private long counter;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] png = new byte[PAYLOAD_BYTES];
+        new Random(42).nextBytes(png);
+        driver = new StubScreenshotDriver(png);
+        directory = Files.createTempDirectory("screenshot-benchmark");
+    }
+
+    @TearDown(Level.Iteration)
+    public void flushWrites() {
+        ScreenshotUtil.flush();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Benchmark
+    public String synchronousCopy() throws IOException {
+        String timestamp = new SimpleDateFormat("dd-MMM-yy_HH-mm-ss").format(new Date());
+        File destination = directory.resolve(timestamp + "_sync-" + counter++ + ".png").toFile();
+        File source = driver.getScreenshotAs(OutputType.FILE);
+        FileUtils.copyFile(source, destination);
+        Files.deleteIfExists(source.toPath());
+        return destination.getPath();
+    }
+
+    @Benchmark
+    public String asynchronousWriter() {
+        return ScreenshotUtil.captureScreen(driver, directory, "async-" + counter++);
+    }
+
+    @Benchmark
+    public String asyncWithFlush() {
+        String path = ScreenshotUtil.captureScreen(driver, directory, "flushed-" + counter++);
+        ScreenshotUtil.flush();
+        return path;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ScreenshotCaptureBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Converts a base64 payload the way RemoteWebDriver converts the server response. A call counter is
+     * written into the bytes first, so no two screenshots are identical.
+     */
+    private static final class StubScreenshotDriver implements TakesScreenshot {
+
+        private final byte[] png;
+        private long calls;
+
+        private StubScreenshotDriver(byte[] png) {
+            this.png = png;
+        }
+
+        @Override
+        public <X> X getScreenshotAs(OutputType<X> target) {
+            ByteBuffer.wrap(png).putLong(calls++);
+            return target.convertFromBase64Png(Base64.getEncoder().encodeToString(png));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import utils.BackgroundExecutors;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares thread and memory footprint of platform vs virtual threads when driving
+ * many concurrent "sessions" against a stub Appium server.
+ * Each session mimics a wait loop: one blocking HTTP round trip, then a poll-interval sleep.
+ * Sessions run on {@link BackgroundExecutors#newExecutor(String, int, boolean)}, as the framework's helpers do.
+ * <p>
+ * Run from the project root (BackgroundExecutors reads config.properties) with:
+ * {@code java -cp <test classpath> benchmarks.VirtualThreadFootprintBenchmark [sessions...]}
+ * (defaults to 4, 16 and 64 sessions).
+ */
+public class VirtualThreadFootprintBenchmark {
+
+    private static final long RUN_MILLIS = 5_000;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    public static void main(String[] args) throws Exception {
+        int[] sessionCounts = args.length == 0
+                ? new int[]{4, 16, 64}
+                : java.util.Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+
+        ExecutorService stubExecutor = BackgroundExecutors.newExecutor("stub-server", 4, false);
+        HttpServer stub = startStubServer(stubExecutor);
+        String statusUrl = "http://127.0.0.1:" + stub.getAddress().getPort() + "/status";
+
+        System.out.printf("%-10s %-9s %12s %14s %14s%n", "threads", "sessions", "peakThreads", "heapDeltaKB", "roundTrips");
+        try {
+            for (int sessions : sessionCounts) {
+                for (boolean virtual : new boolean[]{false, true}) {
+                    Result result = run(statusUrl, sessions, virtual);
+                    System.out.printf("%-10s %-9d %12d %14d %14d%n",
+                            virtual ? "virtual" : "platform", sessions, result.peakThreads(), result.heapDeltaKb(), result.roundTrips());
+                }
+            }
+        } finally {
+            stub.stop(0);
+            stubExecutor.shutdown();
+        }
+    }
+
+    private static Result run(String statusUrl, int sessions, boolean virtual) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        threads.resetPeakThreadCount();
+
+        AtomicLong roundTrips = new AtomicLong();
+        long deadline = System.currentTimeMillis() + RUN_MILLIS;
+
+        // The executor the framework builds for background helpers, with the thread kind forced per run
+        try (ExecutorService workers = BackgroundExecutors.newExecutor("session", sessions, virtual)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < sessions; i++) {
+                futures.add(workers.submit(() -> {
+                    while (System.currentTimeMillis() < deadline) {
+                        poll(statusUrl);
+                        roundTrips.incrementAndGet();
+                        Thread.sleep(POLL_INTERVAL_MILLIS);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        return new Result(threads.getPeakThreadCount(), (heapAfter - heapBefore) / 1024, roundTrips.get());
+    }
+
+    private static void poll(String statusUrl) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(statusUrl).toURL().openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            in.readAllBytes();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static HttpServer startStubServer(ExecutorService executor) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        byte[] body = "{\"value\":{\"ready\":true}}".getBytes(StandardCharsets.UTF_8);
+        server.createContext("/status", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        // Fixed pool so the stub's own threads are the same for every run
+        server.setExecutor(executor);
+        server.start();
+        return server;
+    }
+
+    private record Result(int peakThreads, long heapDeltaKb, long roundTrips) {
+    }
+}
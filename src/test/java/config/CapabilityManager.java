@@ -1,5 +1,6 @@
 package config;
 
+import driver.DeviceSlot;
 import io.appium.java_client.android.options.UiAutomator2Options;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -25,6 +26,19 @@ public class CapabilityManager {
 
         // Load device-specific capabilities from JSON
         Map<String, Object> deviceCapabilities = JsonReader.readAndroidDeviceConfig(deviceType, deviceName);
+        return buildAndroidCapabilities(deviceType, deviceName, deviceCapabilities);
+    }
+
+    /**
+     * Builds capabilities for a device handed out by the {@link driver.DeviceScheduler}.
+     * The slot already carries its android-devices.json entry, so the JSON file is not re-read per session.
+     */
+    public UiAutomator2Options getAndroidCapabilities(DeviceSlot slot) {
+        logger.info("Loaded capabilities for scheduled device: {}", slot);
+        return buildAndroidCapabilities(slot.type(), slot.name(), slot.capabilities());
+    }
+
+    private UiAutomator2Options buildAndroidCapabilities(String deviceType, String deviceName, Map<String, Object> deviceCapabilities) {
         if (deviceCapabilities == null || deviceCapabilities.isEmpty()) {
             logger.error("No capabilities found for device type: {}, device name: {}", deviceType, deviceName);
             throw new RuntimeException("No capabilities found for device type: " + deviceType + ", device name: " + deviceName);
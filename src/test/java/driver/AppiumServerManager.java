@@ -5,18 +5,40 @@ import io.appium.java_client.service.local.AppiumDriverLocalService;
 import io.appium.java_client.service.local.AppiumServiceBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import utils.BackgroundExecutors;
 import utils.ConfigReader;
 
 import java.io.File;
-import java.io.IOException;
-import java.net.Socket;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Runs one local Appium server per scheduled device.
+ * Servers are started in parallel, each on its own port from the {@link PortAllocator},
+ * together with that device's systemPort, chromedriverPort and mjpegServerPort.
+ * A server that has not been used for {@code appium.server.idle.shutdown.seconds} is stopped, together with
+ * the pooled session waiting on it, and started again on demand the next time its device is leased.
+ */
 public class AppiumServerManager {
 
     private static final Logger logger = LogManager.getLogger(AppiumServerManager.class);
 
     private static AppiumServerManager instance;
-    private AppiumDriverLocalService service;
+
+    private final Map<String, ManagedServer> servers = new ConcurrentHashMap<>();
+    private final Map<String, Object> startLocks = new ConcurrentHashMap<>();
+    private PortAllocator portAllocator;
+    private JsonNode serverConfig;
+    private ScheduledExecutorService idleReaper;
 
     private AppiumServerManager() {
     }
@@ -39,6 +61,9 @@ public class AppiumServerManager {
     }
 
 
+    /**
+     * Starts a server for every device known to the {@link DeviceScheduler}, in parallel.
+     */
     public void startServer() {
 
         String env = ConfigReader.getInstance().getProperty("appium.server.env");
@@ -54,47 +79,103 @@ public class AppiumServerManager {
             return;  // Skip the server start for BrowserStack
         }
 
-        if ("local".equalsIgnoreCase(env)) {
-            try {
-                JsonNode config = ConfigReader.getInstance().loadAppiumJsonConfig(env);
-                String host = config.get("host").asText();
-                int port = config.get("port").asInt();
+        if (!"local".equalsIgnoreCase(env)) {
+            logger.error("Invalid appium.server.env value. Expected 'local' or 'browserstack'.");
+            throw new RuntimeException("Invalid appium.server.env value. Expected 'local' or 'browserstack'.");
+        }
 
-                if (service == null || !service.isRunning()) {
+        List<DeviceSlot> slots = DeviceScheduler.getInstance().getSlots();
+        ExecutorService starter = BackgroundExecutors.newExecutor("appium-server-start", slots.size());
+        try {
+            List<CompletableFuture<ManagedServer>> startups = new ArrayList<>();
+            for (DeviceSlot slot : slots) {
+                startups.add(CompletableFuture.supplyAsync(() -> ensureRunning(slot), starter));
+            }
+            CompletableFuture.allOf(startups.toArray(new CompletableFuture[0])).join();
+            logger.info("Started {} Appium server(s).", startups.size());
+        } catch (Exception e) {
+            logger.error("Failed to start Appium server.", e);
+            throw new RuntimeException("Failed to start Appium server", e);
+        } finally {
+            starter.shutdown();
+        }
 
-                    if (isPortInUse(host, port)) {
-                        logger.warn("Appium port {} already in use. Assuming Appium Server is already running at {}:{}", port, host, port);
-                        return;
-                    }
+        startIdleReaper();
+    }
 
-                    AppiumServiceBuilder builder = AppiumServiceBuilderFactory.create(config);
+    /**
+     * Returns the URL of the server serving this device, starting it if it was shut down while idle.
+     */
+    public URL getServerUrl(DeviceSlot slot) {
+        return ensureRunning(slot).service().getUrl();
+    }
 
-                    //working on this
-                    if (!ConfigReader.SHOW_APPIUM_LOGS) {
-                        builder.withArgument(() -> "--log-level", "error")
-                                .withLogFile(new File("test-output-result/appium_logs/appium-server.log"));;
-                    }
+    /**
+     * Returns the ports reserved for this device, starting its server if needed.
+     */
+    public PortAllocator.DevicePorts getPorts(DeviceSlot slot) {
+        return ensureRunning(slot).ports();
+    }
 
-                    service = AppiumDriverLocalService.buildService(builder);
-                    service.start();
+    /**
+     * Marks a device's server as busy or idle; only idle servers are shut down by the reaper.
+     * The mark is made inside the map update, so it is atomic with the reaper's idle check and removal.
+     */
+    public void markInUse(DeviceSlot slot, boolean inUse) {
+        if (slot == null) {
+            return;
+        }
+        servers.computeIfPresent(slot.udid(), (key, server) -> {
+            server.markInUse(inUse);
+            return server;
+        });
+    }
 
-                    if (service.isRunning()) {
-                        logger.info("Appium Server started successfully at {}", service.getUrl());
-                    } else {
-                        logger.error("Appium Server failed to start.");
-                        throw new RuntimeException("Appium server failed to start.");
-                    }
+    /**
+     * Marks a leased device's server in use, starting it again if the reaper stopped it before the mark
+     * landed. A restarted server is marked in use before it is published, so the reaper never sees it idle.
+     */
+    public void ensureServer(DeviceSlot slot) {
+        if (slot == null || slot.isRemote()) {
+            return;
+        }
+        markInUse(slot, true);
+        ensureRunning(slot, true);
+    }
 
-                } else {
-                    logger.warn("Appium Server already running. Skipping start.");
-                }
-            } catch (Exception e) {
-                logger.error("Failed to start Appium server.", e);
-                throw new RuntimeException("Failed to start Appium server", e);
-            }
-        } else {
-            logger.error("Invalid appium.server.env value. Expected 'local' or 'browserstack'.");
-            throw new RuntimeException("Invalid appium.server.env value. Expected 'local' or 'browserstack'.");
+    /**
+     * Checks a device's server without starting it.
+     *
+     * @return true if the server is running and answers /status
+     */
+    public boolean isServerHealthy(DeviceSlot slot) {
+        if (slot.isRemote()) {
+            return true;
+        }
+        ManagedServer server = servers.get(slot.udid());
+        return server != null && server.service().isRunning() && isServerResponding(server.service().getUrl());
+    }
+
+    /**
+     * Half-open probe for a device's server: starts it again if it died, then checks /status.
+     */
+    public boolean probeServer(DeviceSlot slot) {
+        return slot.isRemote() || isServerResponding(getServerUrl(slot));
+    }
+
+    /**
+     * @return true if GET {serverUrl}/status answers 200 within 3 seconds
+     */
+    public static boolean isServerResponding(URL serverUrl) {
+        try {
+            String base = serverUrl.toString().endsWith("/") ? serverUrl.toString() : serverUrl + "/";
+            HttpURLConnection connection = (HttpURLConnection) URI.create(base + "status").toURL().openConnection();
+            connection.setConnectTimeout(3000);
+            connection.setReadTimeout(3000);
+            connection.connect();
+            return connection.getResponseCode() == 200;
+        } catch (Exception e) {
+            return false;
         }
     }
 
@@ -107,18 +188,183 @@ public class AppiumServerManager {
             return;
         }
 
-        if (service != null && service.isRunning()) {
-            service.stop();
-            logger.info("Appium Server stopped.");
+        if (idleReaper != null) {
+            idleReaper.shutdownNow();
         }
+
+        servers.keySet().forEach(this::stop);
     }
 
-    private boolean isPortInUse(String host, int port) {
-        try (Socket socket = new Socket(host, port)) {
-            return true;
-        } catch (IOException e) {
-            return false;
+    private ManagedServer ensureRunning(DeviceSlot slot) {
+        return ensureRunning(slot, false);
+    }
+
+    private ManagedServer ensureRunning(DeviceSlot slot, boolean inUse) {
+        ManagedServer server = touchIfRunning(slot.udid(), inUse);
+        if (server != null) {
+            return server;
+        }
+        // Start-up takes seconds, so it runs outside the map; only callers for the same device wait on it
+        synchronized (startLocks.computeIfAbsent(slot.udid(), key -> new Object())) {
+            server = touchIfRunning(slot.udid(), inUse);
+            if (server != null) {
+                return server;
+            }
+            ManagedServer dead = servers.remove(slot.udid());
+            if (dead != null) {
+                portAllocator.free(dead.ports());
+            }
+            server = start(slot);
+            if (inUse) {
+                server.markInUse(true);
+            }
+            servers.put(slot.udid(), server);
+            return server;
+        }
+    }
+
+    /**
+     * Marks the device's server as used, and in use if asked, atomically with the reaper's idle check.
+     *
+     * @return the server, or null if there is none or it is not running
+     */
+    private ManagedServer touchIfRunning(String udid, boolean inUse) {
+        ManagedServer server = servers.computeIfPresent(udid, (key, existing) -> {
+            if (existing.service().isRunning()) {
+                if (inUse) {
+                    existing.markInUse(true);
+                } else {
+                    existing.touch();
+                }
+            }
+            return existing;
+        });
+        return server != null && server.service().isRunning() ? server : null;
+    }
+
+    private ManagedServer start(DeviceSlot slot) {
+        JsonNode config = getServerConfig();
+        PortAllocator.DevicePorts ports = getPortAllocator(config).allocate();
+
+        AppiumServiceBuilder builder = AppiumServiceBuilderFactory.create(config, ports.serverPort());
+
+        //working on this
+        if (!ConfigReader.SHOW_APPIUM_LOGS) {
+            builder.withArgument(() -> "--log-level", "error")
+                    .withLogFile(new File("test-output-result/appium_logs/appium-server-" + slot.udid() + ".log"));
+        }
+
+        AppiumDriverLocalService service = AppiumDriverLocalService.buildService(builder);
+        service.start();
+
+        if (!service.isRunning()) {
+            portAllocator.free(ports);
+            logger.error("Appium Server failed to start for device {}.", slot);
+            throw new RuntimeException("Appium server failed to start for device " + slot);
+        }
+
+        logger.info("Appium Server started successfully at {} for device {}", service.getUrl(), slot);
+        return new ManagedServer(service, ports);
+    }
+
+    private void stop(String udid) {
+        ManagedServer server = servers.remove(udid);
+        if (server != null) {
+            shutDown(udid, server);
+        }
+    }
+
+    /**
+     * Stops a device's server if it is still idle. The idle check is repeated inside the map update, so a
+     * lease that touched the server after the reaper first looked keeps it; the pooled session waiting on
+     * the server is quit first, since it cannot outlive it.
+     */
+    private void stopIfIdle(String udid, long idleMillis) {
+        ManagedServer[] reaped = new ManagedServer[1];
+        servers.computeIfPresent(udid, (key, server) -> {
+            if (!server.isIdleFor(idleMillis)) {
+                return server;
+            }
+            reaped[0] = server;
+            return null;
+        });
+        if (reaped[0] != null) {
+            logger.info("Appium Server for device {} idle for {} s; shutting it down.", udid, idleMillis / 1000);
+            DriverSessionPool.getInstance().discardIdle(udid);
+            shutDown(udid, reaped[0]);
+        }
+    }
+
+    private void shutDown(String udid, ManagedServer server) {
+        if (server.service().isRunning()) {
+            server.service().stop();
+            logger.info("Appium Server stopped for device {}.", udid);
         }
+        portAllocator.free(server.ports());
     }
 
+    private synchronized void startIdleReaper() {
+        long idleSeconds = ConfigReader.getInstance().getLong("appium.server.idle.shutdown.seconds", 300);
+        if (idleSeconds <= 0 || idleReaper != null) {
+            return;
+        }
+
+        idleReaper = BackgroundExecutors.newScheduledExecutor("appium-server-reaper");
+        idleReaper.scheduleWithFixedDelay(() -> servers.forEach((udid, server) -> {
+            if (server.isIdleFor(idleSeconds * 1000L)) {
+                stopIfIdle(udid, idleSeconds * 1000L);
+            }
+        }), idleSeconds, Math.max(1, idleSeconds / 4), TimeUnit.SECONDS);
+    }
+
+    private synchronized JsonNode getServerConfig() {
+        if (serverConfig == null) {
+            serverConfig = ConfigReader.getInstance().loadAppiumJsonConfig("local");
+        }
+        return serverConfig;
+    }
+
+    private synchronized PortAllocator getPortAllocator(JsonNode config) {
+        if (portAllocator == null) {
+            portAllocator = new PortAllocator(config.get("host").asText(), config.get("port").asInt());
+        }
+        return portAllocator;
+    }
+
+    /**
+     * A running server, its reserved ports and when it was last used.
+     */
+    private static final class ManagedServer {
+
+        private final AppiumDriverLocalService service;
+        private final PortAllocator.DevicePorts ports;
+        private volatile long lastUsedMillis = System.currentTimeMillis();
+        private volatile boolean inUse;
+
+        private ManagedServer(AppiumDriverLocalService service, PortAllocator.DevicePorts ports) {
+            this.service = service;
+            this.ports = ports;
+        }
+
+        AppiumDriverLocalService service() {
+            return service;
+        }
+
+        PortAllocator.DevicePorts ports() {
+            return ports;
+        }
+
+        void touch() {
+            lastUsedMillis = System.currentTimeMillis();
+        }
+
+        void markInUse(boolean inUse) {
+            this.inUse = inUse;
+            touch();
+        }
+
+        boolean isIdleFor(long millis) {
+            return !inUse && System.currentTimeMillis() - lastUsedMillis > millis;
+        }
+    }
 }
@@ -18,8 +18,15 @@ public class AppiumServiceBuilderFactory {
     private static final Logger logger = LogManager.getLogger(AppiumServiceBuilderFactory.class);
 
     public static AppiumServiceBuilder create(JsonNode config) {
+        return create(config, config.get("port").asInt());
+    }
+
+    /**
+     * Builds a server on the given port instead of the one in the JSON config,
+     * used when several servers run side by side.
+     */
+    public static AppiumServiceBuilder create(JsonNode config, int port) {
         String host = config.get("host").asText();
-        int port = config.get("port").asInt();
 
         AppiumServiceBuilder builder = new AppiumServiceBuilder()
                 .withIPAddress(host)
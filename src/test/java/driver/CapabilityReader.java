@@ -0,0 +1,51 @@
+package driver;
+
+import org.openqa.selenium.Capabilities;
+import utils.ConfigReader;
+import utils.DeviceProfile;
+
+import java.nio.file.Paths;
+
+/**
+ * Reads session capabilities regardless of whether the server returned them
+ * with or without the W3C "appium:" vendor prefix. The lookup itself lives in {@link DeviceProfile}.
+ */
+public final class CapabilityReader {
+
+    private CapabilityReader() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @param capabilities session capabilities
+     * @param key          capability name without the "appium:" prefix
+     * @return the value as a string, or null if absent
+     */
+    public static String get(Capabilities capabilities, String key) {
+        return DeviceProfile.capability(capabilities, key);
+    }
+
+    /**
+     * @return the device serial of the session, or "unknown-device" if not reported
+     */
+    public static String getDeviceId(Capabilities capabilities) {
+        String udid = DeviceProfile.deviceId(capabilities);
+        return udid == null ? "unknown-device" : udid;
+    }
+
+    /**
+     * Identifies the app build under test: {@code app.build} from config.properties if set,
+     * otherwise the APK file name or BrowserStack app id from the "app" capability.
+     */
+    public static String getAppBuild(Capabilities capabilities) {
+        String configured = ConfigReader.getInstance().getProperty("app.build");
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        String app = get(capabilities, "app");
+        if (app == null || app.isBlank()) {
+            return "unknown-build";
+        }
+        return app.startsWith("bs://") ? app : Paths.get(app).getFileName().toString();
+    }
+}
@@ -0,0 +1,133 @@
+package driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Per device / per server circuit breaker for session creation.
+ * After {@code circuit.breaker.failure.threshold} consecutive failures the breaker opens and callers
+ * skip that device or server. Once {@code circuit.breaker.open.seconds} have passed, one half-open probe
+ * (e.g. the server's /status endpoint) decides whether a real attempt is allowed again; concurrent callers
+ * fail fast with {@link CircuitOpenException} while that probe is running.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LogManager.getLogger(CircuitBreaker.class);
+
+    private static final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    private CircuitBreaker(String name) {
+        ConfigReader config = ConfigReader.getInstance();
+        this.name = name;
+        this.failureThreshold = config.getInt("circuit.breaker.failure.threshold", 3);
+        this.openMillis = config.getLong("circuit.breaker.open.seconds", 60) * 1000L;
+    }
+
+    public static CircuitBreaker forDevice(String udid) {
+        return breakers.computeIfAbsent("device:" + udid, CircuitBreaker::new);
+    }
+
+    public static CircuitBreaker forServer(String serverKey) {
+        return breakers.computeIfAbsent("server:" + serverKey, CircuitBreaker::new);
+    }
+
+    /**
+     * Cheap check without probing: true while the breaker is open and still cooling down,
+     * or while another caller's half-open probe is running.
+     */
+    public synchronized boolean isOpen() {
+        return (state == State.OPEN && System.currentTimeMillis() - openedAt < openMillis) || probeInFlight.get();
+    }
+
+    /**
+     * Decides whether a real attempt may go ahead.
+     * In the half-open state the probe is run first; a failed probe re-opens the breaker.
+     * Only one caller probes at a time, outside the breaker's lock.
+     *
+     * @param halfOpenProbe health check used once the open period has elapsed
+     * @throws CircuitOpenException if another caller's half-open probe has not settled yet
+     */
+    public boolean allowRequest(BooleanSupplier halfOpenProbe) {
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.OPEN && System.currentTimeMillis() - openedAt < openMillis) {
+                return false;
+            }
+        }
+
+        if (!probeInFlight.compareAndSet(false, true)) {
+            throw new CircuitOpenException("Circuit " + name + " is half-open and already being probed.");
+        }
+        try {
+            synchronized (this) {
+                if (state == State.CLOSED) {
+                    return true;
+                }
+                state = State.HALF_OPEN;
+            }
+
+            boolean healthy;
+            try {
+                healthy = halfOpenProbe.getAsBoolean();
+            } catch (Exception e) {
+                healthy = false;
+            }
+
+            if (healthy) {
+                logger.info("Circuit {} half-open probe passed; allowing a trial request.", name);
+                return true;
+            }
+            synchronized (this) {
+                open();
+            }
+            logger.warn("Circuit {} half-open probe failed; staying open for another {} s.", name, openMillis / 1000);
+            return false;
+        } finally {
+            probeInFlight.set(false);
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Circuit {} closed again.", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            open();
+            logger.warn("Circuit {} opened after {} consecutive failure(s).", name, consecutiveFailures);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,14 @@
+package driver;
+
+/**
+ * Thrown when no session can be created because every candidate device or server
+ * has an open circuit breaker. Lets scenarios fail fast instead of waiting out creation timeouts.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
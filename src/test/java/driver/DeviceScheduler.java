@@ -0,0 +1,208 @@
+package driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+import utils.DeviceUtils;
+import utils.data.JsonReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Hands devices to scenarios.
+ * Devices are discovered with {@code adb devices} and matched by udid against android-devices.json,
+ * so every configured device that is plugged in becomes a slot.
+ * <p>
+ * Each worker thread keeps an affinity to the device it used last. When that device is busy
+ * the worker takes any other free device instead of waiting for it, so idle devices never sit
+ * unused while scenarios are queued. Callers can restrict leasing to eligible devices,
+ * e.g. to skip devices whose circuit breaker is open.
+ */
+public class DeviceScheduler {
+
+    private static final Logger logger = LogManager.getLogger(DeviceScheduler.class);
+
+    private static volatile DeviceScheduler instance;
+
+    private final List<DeviceSlot> slots;
+    private final List<DeviceSlot> freeSlots = new ArrayList<>();
+    private final ThreadLocal<DeviceSlot> affinity = new ThreadLocal<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotReleased = lock.newCondition();
+
+    private DeviceScheduler() {
+        this.slots = Collections.unmodifiableList(discoverSlots());
+        this.freeSlots.addAll(slots);
+        logger.info("Device scheduler initialized with {} device(s): {}", slots.size(), slots);
+    }
+
+    public static DeviceScheduler getInstance() {
+        if (instance == null) {
+            synchronized (DeviceScheduler.class) {
+                if (instance == null) {
+                    instance = new DeviceScheduler();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public List<DeviceSlot> getSlots() {
+        return slots;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Takes a free device, blocking until one is released or the timeout elapses.
+     * Preference order: this thread's last device, then a device matching {@code preferred}, then any free device.
+     *
+     * @param preferred     devices worth taking first, e.g. ones that already hold a warm session
+     * @param timeoutMillis maximum time to wait for a free device
+     * @return the leased device
+     */
+    public DeviceSlot acquire(Predicate<DeviceSlot> preferred, long timeoutMillis) {
+        return acquire(slot -> true, preferred, timeoutMillis);
+    }
+
+    /**
+     * Takes a free device that passes {@code eligible}, blocking until one is released or the timeout elapses.
+     * Eligibility is re-checked at least once a second, since it can change without a release
+     * (e.g. a circuit breaker cooling down).
+     *
+     * @param eligible      devices that may be handed out at all
+     * @param preferred     devices worth taking first among the eligible ones
+     * @param timeoutMillis maximum time to wait for a free device
+     * @return the leased device
+     * @throws CircuitOpenException if no device is eligible, busy or not
+     */
+    public DeviceSlot acquire(Predicate<DeviceSlot> eligible, Predicate<DeviceSlot> preferred, long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        lock.lock();
+        try {
+            while (freeSlots.stream().noneMatch(eligible)) {
+                if (slots.stream().noneMatch(eligible)) {
+                    throw new CircuitOpenException("No device is accepting sessions; every device or server circuit is open.");
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new RuntimeException("Timed out after " + timeoutMillis / 1000 + " seconds waiting for a free device.");
+                }
+                slotReleased.await(Math.min(remaining, 1000), TimeUnit.MILLISECONDS);
+            }
+
+            DeviceSlot slot = pick(eligible, preferred);
+            freeSlots.remove(slot);
+            affinity.set(slot);
+            logger.info("Device {} leased to thread {}.", slot, Thread.currentThread().getName());
+            return slot;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a free device.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a free device matching {@code filter} without waiting.
+     *
+     * @return the leased device, or null if none is free
+     */
+    public DeviceSlot tryAcquire(Predicate<DeviceSlot> filter) {
+        lock.lock();
+        try {
+            for (DeviceSlot slot : freeSlots) {
+                if (filter.test(slot)) {
+                    freeSlots.remove(slot);
+                    return slot;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(DeviceSlot slot) {
+        if (slot == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (!freeSlots.contains(slot)) {
+                freeSlots.add(slot);
+                slotReleased.signal();
+                logger.debug("Device {} released.", slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private DeviceSlot pick(Predicate<DeviceSlot> eligible, Predicate<DeviceSlot> preferred) {
+        DeviceSlot last = affinity.get();
+        if (last != null && freeSlots.contains(last) && eligible.test(last)) {
+            return last;
+        }
+        for (DeviceSlot slot : freeSlots) {
+            if (eligible.test(slot) && preferred.test(slot)) {
+                return slot;
+            }
+        }
+        return freeSlots.stream().filter(eligible).findFirst().orElseThrow();
+    }
+
+    private static List<DeviceSlot> discoverSlots() {
+        ConfigReader config = ConfigReader.getInstance();
+        List<DeviceSlot> discovered = new ArrayList<>();
+
+        if (!"local".equalsIgnoreCase(config.getProperty("appium.server.env"))) {
+            int size = config.getInt("driver.pool.size", 1);
+            for (int i = 1; i <= size; i++) {
+                discovered.add(new DeviceSlot("browserstack", "browserstack-" + i, "browserstack-" + i, Map.of()));
+            }
+            return discovered;
+        }
+
+        List<String> connected = DeviceUtils.getConnectedDevices();
+        Map<String, Map<String, Map<String, Object>>> configs = JsonReader.readAllAndroidDeviceConfigs();
+
+        configs.forEach((type, devices) -> devices.forEach((name, capabilities) -> {
+            Object udid = capabilities.get("udid");
+            if (udid != null && connected.contains(udid.toString())) {
+                discovered.add(new DeviceSlot(type, name, udid.toString(), capabilities));
+            }
+        }));
+
+        connected.stream()
+                .filter(serial -> discovered.stream().noneMatch(slot -> slot.udid().equals(serial)))
+                .forEach(serial -> logger.warn("Device {} is connected but has no entry in android-devices.json; it will not be used.", serial));
+
+        int maxSlots = config.getInt("driver.pool.size", -1);
+        if (maxSlots >= 0 && discovered.size() > maxSlots) {
+            return new ArrayList<>(discovered.subList(0, maxSlots));
+        }
+
+        if (discovered.isEmpty()) {
+            // Fall back to the single device named in config.properties
+            String deviceType = config.getProperty("device.type");
+            String deviceName = config.getProperty("device.name");
+            logger.warn("No connected device matched android-devices.json; falling back to device.type/device.name: {}/{}", deviceType, deviceName);
+            Map<String, Object> capabilities = JsonReader.readAndroidDeviceConfig(deviceType, deviceName);
+            Object udid = capabilities.get("udid");
+            discovered.add(new DeviceSlot(deviceType, deviceName, udid == null ? deviceName : udid.toString(), capabilities));
+        }
+
+        return discovered;
+    }
+}
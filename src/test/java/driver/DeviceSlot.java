@@ -0,0 +1,32 @@
+package driver;
+
+import utils.DeviceUtils;
+
+import java.util.Map;
+
+/**
+ * A device the scheduler can hand to a scenario.
+ *
+ * @param type         device type section in android-devices.json ("emulator", "real-device"), or "browserstack"
+ * @param name         device key in android-devices.json
+ * @param udid         adb serial of the device
+ * @param capabilities device capabilities from android-devices.json
+ */
+public record DeviceSlot(String type, String name, String udid, Map<String, Object> capabilities) {
+
+    public boolean isRemote() {
+        return "browserstack".equals(type);
+    }
+
+    /**
+     * @return true if adb lists this device; remote devices always count as connected
+     */
+    public boolean isConnected() {
+        return isRemote() || DeviceUtils.getConnectedDevices().contains(udid);
+    }
+
+    @Override
+    public String toString() {
+        return type + "/" + name + " (" + udid + ")";
+    }
+}
@@ -16,6 +16,15 @@ public class DriverFactory {
     private static final Logger logger = LogManager.getLogger(DriverFactory.class);
 
     public AndroidDriver createDriver() {
+        return createDriver(null);
+    }
+
+    /**
+     * Creates a session on the given scheduled device.
+     *
+     * @param slot device from the {@link DeviceScheduler}; null uses device.type/device.name from config.properties
+     */
+    public AndroidDriver createDriver(DeviceSlot slot) {
         try {
             String environment = ConfigReader.getInstance().getProperty("appium.server.env");
 
@@ -27,7 +36,7 @@ public class DriverFactory {
             if ("browserstack".equals(environment)) {
                 return createBrowserStackDriver();
             } else if ("local".equalsIgnoreCase(environment)) {
-                return createLocalDriver();
+                return createLocalDriver(slot);
             } else {
                 throw new RuntimeException("Unsupported Appium server environment: " + environment);
             }
@@ -70,34 +79,61 @@ public class DriverFactory {
     }
 
     // Method to handle Local Appium driver creation
-    private static AndroidDriver createLocalDriver() {
+    private static AndroidDriver createLocalDriver(DeviceSlot slot) {
         System.setProperty("log4j.configurationFile", "src/test/resources/config/log4j2.xml");
         System.setProperty("log4j.info", "true");
+        SessionTimings.begin();
         try {
 
-            if (!DeviceUtils.isAnyDeviceConnected()) {
-                System.out.println("Logger effective level: " + logger.getLevel());
+            // A scheduled slot needs its own device; any device will do only for the single-device setup
+            if (!SessionTimings.time("device-check", () -> slot == null ? DeviceUtils.isAnyDeviceConnected() : slot.isConnected())) {
+                logger.debug("Logger effective level: {}", logger.getLevel());
 
-                logger.info("No Android device connected. Aborting driver creation by logger");
-                throw new RuntimeException("No Android device connected. Aborting driver creation.");
+                String reason = slot == null ? "No Android device connected" : "Device " + slot + " is not connected";
+                logger.info("{}. Aborting driver creation by logger", reason);
+                throw new RuntimeException(reason + ". Aborting driver creation.");
             } else {
 
                 logger.info("Android device detected. Proceeding to create AndroidDriver.");
 
-                String host = ConfigReader.getInstance().getProperty("appium.host");
-                String port = ConfigReader.getInstance().getProperty("appium.port");
-                String serverUrl = "http://" + host + ":" + port;  // Ensure the correct URL path
-
-                URI uri = URI.create(serverUrl);
-                URL url = uri.toURL();
-
                 // Dynamically loading local capabilities
-                AndroidDriver driver = new AndroidDriver(url, new CapabilityManager().getAndroidCapabilities());
+                CapabilityManager capabilityManager = new CapabilityManager();
+                UiAutomator2Options options;
+                URL url;
+
+                if (slot == null) {
+                    String host = ConfigReader.getInstance().getProperty("appium.host");
+                    String port = ConfigReader.getInstance().getProperty("appium.port");
+                    String serverUrl = "http://" + host + ":" + port;  // Ensure the correct URL path
+
+                    url = URI.create(serverUrl).toURL();
+                    options = SessionTimings.time("capabilities", capabilityManager::getAndroidCapabilities);
+                } else {
+                    // Each device talks to its own server with its own driver-side ports
+                    url = SessionTimings.time("server", () -> AppiumServerManager.getInstance().getServerUrl(slot));
+                    PortAllocator.DevicePorts ports = AppiumServerManager.getInstance().getPorts(slot);
+                    options = SessionTimings.time("capabilities", () -> capabilityManager.getAndroidCapabilities(slot))
+                            .setSystemPort(ports.systemPort())
+                            .setChromedriverPort(ports.chromedriverPort())
+                            .setMjpegServerPort(ports.mjpegServerPort());
+                    logger.info("Using Appium server {} for device {} with ports {}", url, slot, ports);
+                }
+
+                // Lets the server report install/launch steps inside the new-session call
+                if (ConfigReader.getInstance().getBoolean("session.timings.server.events", true)) {
+                    options.setCapability("appium:eventTimings", true);
+                }
+
+                final URL serverUrl = url;
+                final UiAutomator2Options sessionOptions = options;
+                AndroidDriver driver = SessionTimings.time("new-session", () -> new AndroidDriver(serverUrl, sessionOptions));
+                SessionTimings.complete(driver, slot == null ? CapabilityReader.getDeviceId(driver.getCapabilities()) : slot.udid());
 
                 logger.info("Successfully created local AndroidDriver.");
                 return driver;
             }
         } catch (Exception e) {
+            SessionTimings.abort();
             logger.error("Failed to create local AndroidDriver", e);
             throw new RuntimeException("Failed to create local AndroidDriver", e);
         }
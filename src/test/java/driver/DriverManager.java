@@ -5,18 +5,46 @@ import io.appium.java_client.android.AndroidDriver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.function.Supplier;
+
 public class DriverManager {
 
     private static final Logger logger = LogManager.getLogger(DriverManager.class);
     private static final ThreadLocal<AndroidDriver> driverThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<Supplier<AndroidDriver>> lazyInitializer = new ThreadLocal<>();
+    private static final ThreadLocal<RuntimeException> initializationFailure = new ThreadLocal<>();
 
     public static void setDriver(AndroidDriver driver) {
         logger.debug("Setting driver for thread: {}", Thread.currentThread().threadId());
         driverThreadLocal.set(driver);
     }
 
+    /**
+     * Returns the current thread's driver, creating it through the registered lazy initializer
+     * on first access. Scenarios that never touch the UI therefore never create a session.
+     * If creation fails, later calls in the same scenario rethrow that failure instead of trying again.
+     */
     public static AppiumDriver getDriver() {
         AppiumDriver driver = driverThreadLocal.get();
+        if (driver == null) {
+            RuntimeException failure = initializationFailure.get();
+            if (failure != null) {
+                throw new IllegalStateException("Driver creation failed earlier in this scenario: " + failure.getMessage(), failure);
+            }
+            Supplier<AndroidDriver> initializer = lazyInitializer.get();
+            if (initializer != null) {
+                logger.info("First driver access on thread {}; creating session now.", Thread.currentThread().getName());
+                try {
+                    driver = initializer.get();
+                } catch (RuntimeException e) {
+                    initializationFailure.set(e);
+                    throw e;
+                } finally {
+                    lazyInitializer.remove();
+                }
+                setDriver((AndroidDriver) driver);
+            }
+        }
         if (driver == null) {
             throw new IllegalStateException("Driver not initialized for current thread. Call setDriver() first.");
         }
@@ -24,7 +52,46 @@ public class DriverManager {
 //        return driverThreadLocal.get();
     }
 
+    /**
+     * Registers how to create this thread's driver; the initializer runs on the first {@link #getDriver()} call.
+     */
+    public static void setLazyInitializer(Supplier<AndroidDriver> initializer) {
+        initializationFailure.remove();
+        lazyInitializer.set(initializer);
+    }
+
+    /**
+     * @return true if a driver has actually been created for this thread
+     */
+    public static boolean hasDriver() {
+        return driverThreadLocal.get() != null;
+    }
+
+    /**
+     * Leases a pooled session for the current scenario and binds it to this thread.
+     */
+    public static AndroidDriver acquireDriver() {
+        AndroidDriver driver = DriverSessionPool.getInstance().lease();
+        setDriver(driver);
+        return driver;
+    }
+
+    /**
+     * Hands the current thread's session back to the pool and unbinds it.
+     *
+     * @param healthy false if the session should be quit instead of reused
+     */
+    public static void releaseDriver(boolean healthy) {
+        AndroidDriver driver = driverThreadLocal.get();
+        if (driver != null) {
+            DriverSessionPool.getInstance().release(driver, healthy);
+        }
+        unload();
+    }
+
     public static void unload() {
+        lazyInitializer.remove();
+        initializationFailure.remove();
         if (driverThreadLocal.get() != null) {
             driverThreadLocal.remove();
             logger.info("Driver instance unloaded from the current thread.");
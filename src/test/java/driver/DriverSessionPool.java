@@ -0,0 +1,383 @@
+package driver;
+
+import io.appium.java_client.android.AndroidDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.BackgroundExecutors;
+import utils.ConfigReader;
+import utils.DeviceProfile;
+import utils.locators.ElementCache;
+import utils.popups.PopupWatcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps warm AndroidDriver sessions alive between scenarios, one per scheduled device.
+ * A scenario leases a device from the {@link DeviceScheduler}, the pool resets the app state on that
+ * device's idle session and health-checks it, and the session stays with the device on release
+ * instead of being quit. A new session is only created when the device has none or the idle one is broken.
+ * <p>
+ * With {@code driver.prefetch.enabled=true} the pool also creates a session in the background on a
+ * free device that has none yet, while the current scenario runs. Prefetching holds the device like
+ * a scenario would, so it never oversubscribes devices; a second session on a busy device is never
+ * started because UiAutomator2 allows one instrumentation per device.
+ * <p>
+ * Session creation goes through a {@link CircuitBreaker} per device and per server. Repeated failures
+ * open the circuit, leases skip that device, and when every circuit is open a lease fails immediately
+ * with {@link CircuitOpenException} instead of waiting out creation timeouts.
+ */
+public class DriverSessionPool {
+
+    private static final Logger logger = LogManager.getLogger(DriverSessionPool.class);
+
+    private static volatile DriverSessionPool instance;
+
+    private final DeviceScheduler scheduler = DeviceScheduler.getInstance();
+    private final DriverFactory driverFactory = new DriverFactory();
+    private final Map<String, AndroidDriver> idleSessions = new ConcurrentHashMap<>();
+    private final Map<AndroidDriver, DeviceSlot> leasedSlots = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final String resetStrategy;
+    private final long leaseTimeoutMillis;
+    private final boolean prefetchEnabled;
+    private final ExecutorService prefetchExecutor;
+    private final Map<AndroidDriver, Long> prefetchedCreationMillis = new ConcurrentHashMap<>();
+    private final AtomicInteger prefetchesInFlight = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong recreated = new AtomicLong();
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong totalLeaseWaitMillis = new AtomicLong();
+    private final AtomicLong maxLeaseWaitMillis = new AtomicLong();
+    private final AtomicLong prefetchesStarted = new AtomicLong();
+    private final AtomicLong prefetchesUsed = new AtomicLong();
+    private final AtomicLong prefetchesFailed = new AtomicLong();
+    private final AtomicLong prefetchSavedMillis = new AtomicLong();
+
+    private DriverSessionPool() {
+        ConfigReader config = ConfigReader.getInstance();
+        this.enabled = config.getBoolean("driver.pool.enabled", true);
+        this.resetStrategy = config.getProperty("driver.pool.reset.strategy", "activate");
+        this.leaseTimeoutMillis = config.getLong("driver.pool.lease.timeout.seconds", 300) * 1000L;
+        this.prefetchEnabled = enabled && config.getBoolean("driver.prefetch.enabled", false);
+        this.prefetchExecutor = prefetchEnabled ? BackgroundExecutors.newExecutor("driver-prefetch", 1) : null;
+        logger.info("Driver session pool initialized - enabled: {}, size: {}, reset strategy: {}, prefetch: {}",
+                enabled, scheduler.size(), resetStrategy, prefetchEnabled);
+    }
+
+    public static DriverSessionPool getInstance() {
+        if (instance == null) {
+            synchronized (DriverSessionPool.class) {
+                if (instance == null) {
+                    instance = new DriverSessionPool();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Leases a device and its session for the current scenario.
+     * Devices that already hold a warm session are preferred over cold ones.
+     *
+     * @return a healthy driver with the app in its launch state
+     */
+    public AndroidDriver lease() {
+        long start = System.currentTimeMillis();
+        DeviceSlot slot = acquireAcceptingSlot(start + leaseTimeoutMillis);
+
+        AndroidDriver driver;
+        try {
+            // Marked in use before the session is taken, so the idle reaper cannot stop the server under it;
+            // if the reaper got there first, the server is started again here
+            AppiumServerManager.getInstance().ensureServer(slot);
+            driver = enabled ? acquireSessionOn(slot) : createSession(slot);
+        } catch (RuntimeException e) {
+            AppiumServerManager.getInstance().markInUse(slot, false);
+            scheduler.release(slot);
+            throw e;
+        }
+        leasedSlots.put(driver, slot);
+
+        long waitMillis = System.currentTimeMillis() - start;
+        recordLeaseWait(waitMillis);
+
+        Long creationMillis = prefetchedCreationMillis.remove(driver);
+        if (creationMillis != null) {
+            prefetchesUsed.incrementAndGet();
+            prefetchSavedMillis.addAndGet(Math.max(0, creationMillis - waitMillis));
+            logger.info("Leased prefetched session {}; saved ~{} ms of session creation.", driver.getSessionId(), creationMillis - waitMillis);
+        }
+
+        prefetchNext();
+        return driver;
+    }
+
+    /**
+     * Returns a session to its device and frees the device. Broken sessions are quit.
+     *
+     * @param driver  the session leased earlier
+     * @param healthy false if the scenario left the session in an unusable state
+     */
+    public void release(AndroidDriver driver, boolean healthy) {
+        if (driver == null) {
+            return;
+        }
+
+        DeviceSlot slot = leasedSlots.remove(driver);
+        AppiumServerManager.getInstance().markInUse(slot, false);
+        if (enabled && healthy && slot != null && driver.getSessionId() != null) {
+            idleSessions.put(slot.udid(), driver);
+            logger.debug("Session {} returned to pool on device {}.", driver.getSessionId(), slot);
+        } else {
+            discard(driver);
+        }
+        scheduler.release(slot);
+    }
+
+    /**
+     * Starts creating a session in the background on a free device that has none yet,
+     * if prefetching is enabled and no other prefetch is running.
+     */
+    public void prefetchNext() {
+        if (!prefetchEnabled || prefetchExecutor.isShutdown()) {
+            return;
+        }
+        if (!prefetchesInFlight.compareAndSet(0, 1)) {
+            return;
+        }
+        DeviceSlot slot = scheduler.tryAcquire(candidate -> !idleSessions.containsKey(candidate.udid()) && isCircuitClosable(candidate));
+        if (slot == null) {
+            prefetchesInFlight.set(0);
+            return;
+        }
+
+        prefetchesStarted.incrementAndGet();
+        prefetchExecutor.submit(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                AndroidDriver driver = createSession(slot);
+                prefetchedCreationMillis.put(driver, System.currentTimeMillis() - start);
+                idleSessions.put(slot.udid(), driver);
+                logger.info("Prefetched session {} on device {} in {} ms.", driver.getSessionId(), slot, System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                prefetchesFailed.incrementAndGet();
+                logger.warn("Background session prefetch on device {} failed: {}", slot, e.getMessage());
+            } finally {
+                scheduler.release(slot);
+                prefetchesInFlight.set(0);
+            }
+        });
+    }
+
+    /**
+     * Quits every idle session and logs the pool metrics. Called once after all scenarios.
+     */
+    public void shutdown() {
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdown();
+            try {
+                if (!prefetchExecutor.awaitTermination(2, TimeUnit.MINUTES)) {
+                    logger.warn("Session prefetch still running at shutdown.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        idleSessions.values().forEach(this::discard);
+        idleSessions.clear();
+        logSummary();
+    }
+
+    /**
+     * Quits the idle session on a device, if any; used before the device's server is shut down.
+     */
+    void discardIdle(String udid) {
+        AndroidDriver driver = idleSessions.remove(udid);
+        if (driver != null) {
+            logger.info("Quitting idle session {} on device {} before its server stops.", driver.getSessionId(), udid);
+            discard(driver);
+        }
+    }
+
+    public PoolMetrics getMetrics() {
+        long leaseCount = leases.get();
+        double avgWait = leaseCount == 0 ? 0 : (double) totalLeaseWaitMillis.get() / leaseCount;
+        return new PoolMetrics(scheduler.size(), hits.get(), misses.get(), recreated.get(), leaseCount, avgWait, maxLeaseWaitMillis.get(),
+                prefetchesStarted.get(), prefetchesUsed.get(), prefetchesFailed.get(), prefetchSavedMillis.get());
+    }
+
+    public void logSummary() {
+        PoolMetrics metrics = getMetrics();
+        logger.info("Driver session pool summary - size: {}, leases: {}, hits: {}, misses: {}, recreated: {}, avg lease wait: {} ms, max lease wait: {} ms",
+                metrics.size(), metrics.leases(), metrics.hits(), metrics.misses(), metrics.recreated(),
+                String.format("%.0f", metrics.avgLeaseWaitMillis()), metrics.maxLeaseWaitMillis());
+        if (prefetchEnabled) {
+            logger.info("Session prefetch summary - started: {}, used: {}, failed: {}, creation time saved: {} ms",
+                    metrics.prefetchesStarted(), metrics.prefetchesUsed(), metrics.prefetchesFailed(), metrics.prefetchSavedMillis());
+        }
+    }
+
+    private AndroidDriver acquireSessionOn(DeviceSlot slot) {
+        AndroidDriver driver = idleSessions.remove(slot.udid());
+        if (driver != null) {
+            // A prefetched session has just launched the app, so it needs no reset, but it may have sat
+            // idle past newCommandTimeout or lost its server, so it is health-checked like any other
+            boolean prefetched = prefetchedCreationMillis.containsKey(driver);
+            if (isAlive(driver) && (prefetched || resetApp(driver))) {
+                hits.incrementAndGet();
+                logger.info("Reusing pooled session {} on device {}.", driver.getSessionId(), slot);
+                return driver;
+            }
+            recreated.incrementAndGet();
+            discard(driver);
+        }
+
+        misses.incrementAndGet();
+        return createSession(slot);
+    }
+
+    /**
+     * Leases a device whose device and server circuits both accept requests.
+     * Devices with an open circuit are skipped so scenarios reroute to healthy ones; once a circuit's
+     * open period is over, its half-open probe runs here and a failed probe sends the lease elsewhere.
+     */
+    private DeviceSlot acquireAcceptingSlot(long deadline) {
+        while (true) {
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            DeviceSlot slot = scheduler.acquire(this::isCircuitClosable,
+                    candidate -> idleSessions.containsKey(candidate.udid()), remaining);
+
+            boolean allowed;
+            try {
+                allowed = CircuitBreaker.forDevice(slot.udid()).allowRequest(slot::isConnected)
+                        && CircuitBreaker.forServer(slot.udid()).allowRequest(() -> AppiumServerManager.getInstance().probeServer(slot));
+            } catch (CircuitOpenException e) {
+                // Another thread is probing this device; try the others, or fail fast if none is accepting
+                logger.debug(e.getMessage());
+                allowed = false;
+            }
+            if (allowed) {
+                return slot;
+            }
+            scheduler.release(slot);
+        }
+    }
+
+    private boolean isCircuitClosable(DeviceSlot slot) {
+        return !CircuitBreaker.forDevice(slot.udid()).isOpen() && !CircuitBreaker.forServer(slot.udid()).isOpen();
+    }
+
+    private AndroidDriver createSession(DeviceSlot slot) {
+        AndroidDriver driver;
+        try {
+            driver = driverFactory.createDriver(slot);
+        } catch (RuntimeException e) {
+            recordCreationFailure(slot);
+            throw e;
+        }
+        CircuitBreaker.forDevice(slot.udid()).recordSuccess();
+        CircuitBreaker.forServer(slot.udid()).recordSuccess();
+        logger.info("Created new driver session {} on device {}.", driver.getSessionId(), slot);
+        return driver;
+    }
+
+    /**
+     * Blames the server if it no longer answers /status, otherwise the device.
+     */
+    private void recordCreationFailure(DeviceSlot slot) {
+        if (AppiumServerManager.getInstance().isServerHealthy(slot)) {
+            CircuitBreaker.forDevice(slot.udid()).recordFailure();
+        } else {
+            CircuitBreaker.forServer(slot.udid()).recordFailure();
+        }
+    }
+
+    /**
+     * Health-checks an idle session with one cheap command.
+     *
+     * @return false if the session is dead
+     */
+    private boolean isAlive(AndroidDriver driver) {
+        try {
+            String activity = driver.currentActivity();
+            logger.debug("Pooled session {} is alive on activity {}.", driver.getSessionId(), activity);
+            return true;
+        } catch (Exception e) {
+            logger.warn("Pooled session {} failed health check; it will be recreated. Reason: {}", driver.getSessionId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Brings the app on a live session back to its launch state.
+     *
+     * @return false if the reset failed
+     */
+    private boolean resetApp(AndroidDriver driver) {
+        try {
+            String appPackage = DeviceProfile.of(driver).appPackage();
+            if (appPackage == null) {
+                logger.warn("No appPackage capability on session {}; skipping app reset.", driver.getSessionId());
+                return true;
+            }
+
+            switch (resetStrategy.toLowerCase()) {
+                case "clear" -> {
+                    driver.executeScript("mobile: clearApp", Map.of("appId", appPackage));
+                    driver.activateApp(appPackage);
+                }
+                case "none" -> {
+                    // Leave the app where the previous scenario stopped
+                }
+                default -> {
+                    driver.terminateApp(appPackage);
+                    driver.activateApp(appPackage);
+                }
+            }
+            if (!"none".equalsIgnoreCase(resetStrategy)) {
+                ElementCache.forContext(driver).invalidate("app reset");
+            }
+            return true;
+        } catch (Exception e) {
+            logger.warn("App reset on pooled session {} failed; it will be recreated. Reason: {}", driver.getSessionId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void discard(AndroidDriver driver) {
+        prefetchedCreationMillis.remove(driver);
+        ElementCache.remove(driver);
+        PopupWatcher.remove(driver);
+        DeviceProfile.remove(driver);
+        SessionTimings.remove(driver);
+        try {
+            driver.quit();
+            logger.info("AndroidDriver quit successfully.");
+        } catch (Exception e) {
+            logger.warn("Failed to quit driver session cleanly: {}", e.getMessage());
+        }
+    }
+
+    private void recordLeaseWait(long waitMillis) {
+        leases.incrementAndGet();
+        totalLeaseWaitMillis.addAndGet(waitMillis);
+        maxLeaseWaitMillis.accumulateAndGet(waitMillis, Math::max);
+    }
+
+    /**
+     * Point-in-time view of the pool counters.
+     */
+    public record PoolMetrics(int size, long hits, long misses, long recreated, long leases,
+                              double avgLeaseWaitMillis, long maxLeaseWaitMillis,
+                              long prefetchesStarted, long prefetchesUsed, long prefetchesFailed, long prefetchSavedMillis) {
+    }
+}
@@ -0,0 +1,85 @@
+package driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Hands out non-colliding ports for each device: the Appium server port plus the
+ * UiAutomator2 systemPort, chromedriverPort and mjpegServerPort.
+ * A port is only handed out if it is not already allocated in this JVM and can be bound on the host,
+ * so servers started outside the framework are skipped instead of guessed at.
+ */
+public class PortAllocator {
+
+    private static final Logger logger = LogManager.getLogger(PortAllocator.class);
+
+    private static final int RANGE_SIZE = 100;
+
+    private final String host;
+    private final int serverBasePort;
+    private final int systemBasePort;
+    private final int chromedriverBasePort;
+    private final int mjpegBasePort;
+    private final Set<Integer> allocated = new HashSet<>();
+
+    public PortAllocator(String host, int serverBasePort) {
+        ConfigReader config = ConfigReader.getInstance();
+        this.host = host;
+        this.serverBasePort = serverBasePort;
+        this.systemBasePort = config.getInt("appium.system.port.base", 8200);
+        this.chromedriverBasePort = config.getInt("appium.chromedriver.port.base", 9515);
+        this.mjpegBasePort = config.getInt("appium.mjpeg.port.base", 7810);
+    }
+
+    /**
+     * Allocates one full set of ports for a device.
+     */
+    public synchronized DevicePorts allocate() {
+        DevicePorts ports = new DevicePorts(
+                next(serverBasePort), next(systemBasePort), next(chromedriverBasePort), next(mjpegBasePort));
+        logger.info("Allocated ports: {}", ports);
+        return ports;
+    }
+
+    /**
+     * Returns a device's ports so they can be reused by another server.
+     */
+    public synchronized void free(DevicePorts ports) {
+        allocated.remove(ports.serverPort());
+        allocated.remove(ports.systemPort());
+        allocated.remove(ports.chromedriverPort());
+        allocated.remove(ports.mjpegServerPort());
+    }
+
+    private int next(int basePort) {
+        for (int port = basePort; port < basePort + RANGE_SIZE; port++) {
+            if (!allocated.contains(port) && isFree(port)) {
+                allocated.add(port);
+                return port;
+            }
+        }
+        throw new RuntimeException("No free port in range " + basePort + "-" + (basePort + RANGE_SIZE - 1));
+    }
+
+    private boolean isFree(int port) {
+        try (ServerSocket socket = new ServerSocket(port, 1, InetAddress.getByName(host))) {
+            socket.setReuseAddress(true);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Ports reserved for one device.
+     */
+    public record DevicePorts(int serverPort, int systemPort, int chromedriverPort, int mjpegServerPort) {
+    }
+}
@@ -0,0 +1,188 @@
+package driver;
+
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.serverevents.ServerEvents;
+import io.appium.java_client.serverevents.TimedEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Times each phase of session creation (device check, capabilities, server lookup, new-session call)
+ * and, when the server reports event timings, the steps inside the new-session call such as APK install
+ * and app launch. Creation phases are kept per session so the scenario that created it can log them,
+ * next to the lease and app-ready phases of every scenario, and are summarized per device as p50/p95/max
+ * after the run.
+ */
+public final class SessionTimings {
+
+    private static final Logger logger = LogManager.getLogger(SessionTimings.class);
+
+    private static final ThreadLocal<Map<String, Long>> inProgress = new ThreadLocal<>();
+    private static final ThreadLocal<String> createdOnThisThread = new ThreadLocal<>();
+    private static final ThreadLocal<Map<String, Long>> leasePhases = ThreadLocal.withInitial(LinkedHashMap::new);
+    private static final Map<String, Map<String, Long>> timingsBySession = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, List<Long>>> samplesByDevice = new ConcurrentHashMap<>();
+
+    private SessionTimings() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Work whose duration is recorded as one phase.
+     */
+    @FunctionalInterface
+    public interface TimedAction<T> {
+        T run() throws Exception;
+    }
+
+    /**
+     * Starts collecting phases for a session being created on the current thread.
+     */
+    public static void begin() {
+        inProgress.set(new LinkedHashMap<>());
+    }
+
+    /**
+     * Runs the action and records its duration under the given phase name.
+     */
+    public static <T> T time(String phase, TimedAction<T> action) throws Exception {
+        long start = System.currentTimeMillis();
+        try {
+            return action.run();
+        } finally {
+            Map<String, Long> phases = inProgress.get();
+            if (phases != null) {
+                phases.put(phase, System.currentTimeMillis() - start);
+            }
+        }
+    }
+
+    /**
+     * Finishes collection for the created session, adding server-side event phases when available.
+     */
+    public static void complete(AndroidDriver driver, String device) {
+        Map<String, Long> phases = inProgress.get();
+        inProgress.remove();
+        if (phases == null || driver == null || driver.getSessionId() == null) {
+            return;
+        }
+
+        phases.putAll(readServerPhases(driver));
+        timingsBySession.put(driver.getSessionId().toString(), phases);
+        createdOnThisThread.set(driver.getSessionId().toString());
+        phases.forEach((phase, millis) -> addSample(device, phase, millis));
+        logger.info("Session {} creation phases on {}: {}", driver.getSessionId(), device, phases);
+    }
+
+    /**
+     * Drops the phases collected on this thread after a failed creation.
+     */
+    public static void abort() {
+        inProgress.remove();
+    }
+
+    /**
+     * Records a phase of the current lease measured outside session creation, e.g. waiting for the app to be ready.
+     */
+    public static void record(AndroidDriver driver, String phase, long millis) {
+        String device = CapabilityReader.getDeviceId(driver.getCapabilities());
+        addSample(device, phase, millis);
+        leasePhases.get().put(phase, millis);
+    }
+
+    /**
+     * Returns the phases of the lease on this thread and starts over for the next one. Creation phases are
+     * included only when this thread created the session, so a reused or prefetched session does not
+     * report a creation it did not pay for.
+     */
+    public static Map<String, Long> takeLeaseTimings(AndroidDriver driver) {
+        String sessionId = driver.getSessionId().toString();
+        Map<String, Long> timings = new LinkedHashMap<>();
+        if (sessionId.equals(createdOnThisThread.get())) {
+            timings.putAll(timingsBySession.getOrDefault(sessionId, Map.of()));
+            createdOnThisThread.remove();
+        }
+        timings.putAll(leasePhases.get());
+        leasePhases.remove();
+        return timings;
+    }
+
+    /**
+     * Drops the creation phases of a session that is being quit.
+     */
+    public static void remove(AndroidDriver driver) {
+        if (driver.getSessionId() != null) {
+            timingsBySession.remove(driver.getSessionId().toString());
+        }
+    }
+
+    /**
+     * Logs p50/p95/max per phase for every device. Called once after all scenarios.
+     */
+    public static void logSummary() {
+        new TreeMap<>(samplesByDevice).forEach((device, phases) -> phases.forEach((phase, samples) -> {
+            List<Long> sorted;
+            synchronized (samples) {
+                sorted = new ArrayList<>(samples);
+            }
+            Collections.sort(sorted);
+            logger.info("Session creation [{}] {} - samples: {}, p50: {} ms, p95: {} ms, max: {} ms",
+                    device, phase, sorted.size(), percentile(sorted, 50), percentile(sorted, 95), sorted.getLast());
+        }));
+    }
+
+    static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    /**
+     * Turns the server's event timeline (enabled with the eventTimings capability) into
+     * "server:previous->next" phases, so install and launch steps inside the new-session call show up.
+     */
+    private static Map<String, Long> readServerPhases(AndroidDriver driver) {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        try {
+            ServerEvents events = driver.getEvents();
+            List<Map.Entry<String, Long>> timeline = events.events.stream()
+                    .flatMap(event -> firstOccurrence(event).stream())
+                    .sorted(Comparator.comparingLong(Map.Entry::getValue))
+                    .collect(Collectors.toList());
+
+            for (int i = 1; i < timeline.size(); i++) {
+                Map.Entry<String, Long> previous = timeline.get(i - 1);
+                Map.Entry<String, Long> next = timeline.get(i);
+                phases.put("server:" + previous.getKey() + "->" + next.getKey(), next.getValue() - previous.getValue());
+            }
+        } catch (Exception e) {
+            logger.debug("Server event timings not available: {}", e.getMessage());
+        }
+        return phases;
+    }
+
+    private static List<Map.Entry<String, Long>> firstOccurrence(TimedEvent event) {
+        if (event.occurrences == null || event.occurrences.isEmpty()) {
+            return List.of();
+        }
+        return List.of(Map.entry(event.name, event.occurrences.getFirst()));
+    }
+
+    private static void addSample(String device, String phase, long millis) {
+        samplesByDevice.computeIfAbsent(device, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(phase, key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(millis);
+    }
+}
@@ -0,0 +1,32 @@
+package driver.readiness;
+
+import io.appium.java_client.android.AndroidDriver;
+
+import java.util.Set;
+
+/**
+ * Ready when the foreground activity is one of the expected activities.
+ * Activity names may be given fully qualified or relative (".MainActivity").
+ */
+public class ActivityReadinessProbe implements ReadinessProbe {
+
+    private final Set<String> readyActivities;
+
+    public ActivityReadinessProbe(Set<String> readyActivities) {
+        this.readyActivities = readyActivities;
+    }
+
+    @Override
+    public String name() {
+        return "activity" + readyActivities;
+    }
+
+    @Override
+    public boolean isReady(AndroidDriver driver) {
+        String current = driver.currentActivity();
+        if (current == null) {
+            return false;
+        }
+        return readyActivities.stream().anyMatch(activity -> current.equals(activity) || current.endsWith(activity));
+    }
+}
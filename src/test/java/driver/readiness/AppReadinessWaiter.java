@@ -0,0 +1,176 @@
+package driver.readiness;
+
+import driver.CapabilityReader;
+import io.appium.java_client.android.AndroidDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.By;
+import utils.ConfigReader;
+import utils.IdleBudget;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls the configured readiness probes until the app is usable, instead of sleeping a fixed time.
+ * Probes are resolved per app (the "app" log context, e.g. tta) from config.properties:
+ * <ul>
+ *     <li>{@code <app>.splash.activity} - splash activity that must be gone</li>
+ *     <li>{@code <app>.ready.activities} - comma-separated activities that count as ready</li>
+ *     <li>{@code <app>.ready.locators} - comma-separated resource ids or XPaths, any one displayed counts as ready</li>
+ * </ul>
+ * All configured probes must pass. Cheap activity probes run before locator probes.
+ * Time-to-ready is recorded per device and per app build.
+ */
+public final class AppReadinessWaiter {
+
+    private static final Logger logger = LogManager.getLogger(AppReadinessWaiter.class);
+
+    private static final String TTA_PACKAGE_ID = "com.netway.phone.advice:id/";
+
+    private static final Map<String, List<Long>> timeToReadyByDevice = new ConcurrentHashMap<>();
+    private static final Map<String, List<Long>> timeToReadyByBuild = new ConcurrentHashMap<>();
+
+    private AppReadinessWaiter() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Blocks until every probe for the current app reports ready or the timeout elapses.
+     *
+     * @param driver the freshly created or reset session
+     * @return true if the app became ready; false on timeout
+     */
+    public static boolean waitUntilReady(AndroidDriver driver) {
+        ConfigReader config = ConfigReader.getInstance();
+        long timeoutMillis = config.getLong("app.ready.timeout.seconds", 30) * 1000L;
+        long pollingMillis = config.getLong("app.ready.polling.millis", 200);
+
+        List<ReadinessProbe> probes = resolveProbes(currentApp());
+        if (probes.isEmpty()) {
+            logger.warn("No readiness probes configured for app {}; continuing without readiness check.", currentApp());
+            return true;
+        }
+
+        long start = System.currentTimeMillis();
+        long deadline = start + timeoutMillis;
+        while (true) {
+            String lastPending = firstPendingProbe(driver, probes);
+            if (lastPending == null) {
+                long elapsed = System.currentTimeMillis() - start;
+                record(driver, elapsed);
+                logger.info("App ready in {} ms.", elapsed);
+                return true;
+            }
+
+            if (System.currentTimeMillis() >= deadline) {
+                logger.warn("App not ready after {} ms; still waiting on probe {}.", timeoutMillis, lastPending);
+                return false;
+            }
+
+            long sleepStart = System.currentTimeMillis();
+            try {
+                Thread.sleep(pollingMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Readiness wait interrupted.");
+                return false;
+            } finally {
+                IdleBudget.record(IdleBudget.Kind.WAIT, "app-ready", System.currentTimeMillis() - sleepStart);
+            }
+        }
+    }
+
+    /**
+     * Logs average and max time-to-ready per device and per build. Called once after all scenarios.
+     */
+    public static void logSummary() {
+        timeToReadyByDevice.forEach((device, samples) -> logStats("device", device, samples));
+        timeToReadyByBuild.forEach((build, samples) -> logStats("build", build, samples));
+    }
+
+    static List<ReadinessProbe> resolveProbes(String app) {
+        ConfigReader config = ConfigReader.getInstance();
+        String prefix = app.toLowerCase();
+        boolean isTta = "tta".equals(prefix);
+
+        List<ReadinessProbe> probes = new ArrayList<>();
+
+        String splash = config.getProperty(prefix + ".splash.activity",
+                isTta ? "com.netway.phone.advice.javaclass.newSplashScreen" : "");
+        if (!splash.isBlank()) {
+            probes.add(new SplashGoneReadinessProbe(splash.trim()));
+        }
+
+        List<String> activities = splitList(config.getProperty(prefix + ".ready.activities", ""));
+        if (!activities.isEmpty()) {
+            probes.add(new ActivityReadinessProbe(new LinkedHashSet<>(activities)));
+        }
+
+        List<String> locators = splitList(config.getProperty(prefix + ".ready.locators",
+                isTta ? TTA_PACKAGE_ID + "etvMobileNumber," + TTA_PACKAGE_ID + "account" : ""));
+        if (!locators.isEmpty()) {
+            probes.add(new LocatorReadinessProbe(locators.stream().map(AppReadinessWaiter::toLocator).toList()));
+        }
+
+        return probes;
+    }
+
+    private static String firstPendingProbe(AndroidDriver driver, List<ReadinessProbe> probes) {
+        for (ReadinessProbe probe : probes) {
+            try {
+                if (!probe.isReady(driver)) {
+                    return probe.name();
+                }
+            } catch (Exception e) {
+                logger.debug("Readiness probe {} failed: {}", probe.name(), e.getMessage());
+                return probe.name();
+            }
+        }
+        return null;
+    }
+
+    private static void record(AndroidDriver driver, long elapsedMillis) {
+        String device = "unknown-device";
+        String build = "unknown-build";
+        try {
+            device = CapabilityReader.getDeviceId(driver.getCapabilities());
+            build = CapabilityReader.getAppBuild(driver.getCapabilities());
+        } catch (Exception e) {
+            logger.debug("Could not read device/build for readiness metrics: {}", e.getMessage());
+        }
+        timeToReadyByDevice.computeIfAbsent(device, key -> Collections.synchronizedList(new ArrayList<>())).add(elapsedMillis);
+        timeToReadyByBuild.computeIfAbsent(build, key -> Collections.synchronizedList(new ArrayList<>())).add(elapsedMillis);
+    }
+
+    private static void logStats(String dimension, String key, List<Long> samples) {
+        synchronized (samples) {
+            long max = samples.stream().mapToLong(Long::longValue).max().orElse(0);
+            double avg = samples.stream().mapToLong(Long::longValue).average().orElse(0);
+            logger.info("Time-to-ready by {} [{}] - samples: {}, avg: {} ms, max: {} ms",
+                    dimension, key, samples.size(), String.format("%.0f", avg), max);
+        }
+    }
+
+    private static String currentApp() {
+        String app = ThreadContext.get("app");
+        return app == null ? "UnknownApp" : app;
+    }
+
+    private static By toLocator(String value) {
+        return value.startsWith("/") || value.startsWith("(") ? By.xpath(value) : By.id(value);
+    }
+
+    private static List<String> splitList(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,37 @@
+package driver.readiness;
+
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * Ready when any of the app's landing-screen elements is displayed,
+ * e.g. the mobile number field or the Account button for TTA.
+ */
+public class LocatorReadinessProbe implements ReadinessProbe {
+
+    private final List<By> readyLocators;
+
+    public LocatorReadinessProbe(List<By> readyLocators) {
+        this.readyLocators = readyLocators;
+    }
+
+    @Override
+    public String name() {
+        return "locator" + readyLocators;
+    }
+
+    @Override
+    public boolean isReady(AndroidDriver driver) {
+        for (By locator : readyLocators) {
+            for (WebElement element : driver.findElements(locator)) {
+                if (element.isDisplayed()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
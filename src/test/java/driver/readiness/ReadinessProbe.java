@@ -0,0 +1,21 @@
+package driver.readiness;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * A single check that contributes to deciding whether the app under test is usable.
+ * Implementations must be cheap and must not wait; the {@link AppReadinessWaiter} does the polling.
+ */
+public interface ReadinessProbe {
+
+    /**
+     * @return short name used in logs
+     */
+    String name();
+
+    /**
+     * @param driver the session to probe
+     * @return true if this probe considers the app ready right now
+     */
+    boolean isReady(AndroidDriver driver);
+}
@@ -0,0 +1,27 @@
+package driver.readiness;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Ready once the splash activity is no longer in the foreground.
+ */
+public class SplashGoneReadinessProbe implements ReadinessProbe {
+
+    private final String splashActivity;
+
+    public SplashGoneReadinessProbe(String splashActivity) {
+        this.splashActivity = splashActivity;
+    }
+
+    @Override
+    public String name() {
+        return "splashGone[" + splashActivity + "]";
+    }
+
+    @Override
+    public boolean isReady(AndroidDriver driver) {
+        String current = driver.currentActivity();
+        return current != null && !current.isBlank()
+                && !current.equals(splashActivity) && !splashActivity.endsWith(current);
+    }
+}
@@ -0,0 +1,32 @@
+package listeners;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import utils.IdleBudget;
+
+/**
+ * Tells {@link IdleBudget} which scenario and step are running, so sleeps and wait idle time can be
+ * attributed to them. Events of a ConcurrentEventListener arrive on the thread running the scenario.
+ */
+public class IdleBudgetPlugin implements ConcurrentEventListener {
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> IdleBudget.startScenario(event.getTestCase().getName()));
+        publisher.registerHandlerFor(TestStepStarted.class, event -> {
+            if (event.getTestStep() instanceof PickleStepTestStep step) {
+                IdleBudget.startStep(step.getStep().getKeyword() + step.getStep().getText());
+            } else if (event.getTestStep() instanceof HookTestStep hook) {
+                IdleBudget.startStep("@" + hook.getHookType() + " hook");
+            }
+        });
+        publisher.registerHandlerFor(TestStepFinished.class, event -> IdleBudget.endStep());
+        publisher.registerHandlerFor(TestCaseFinished.class, event -> IdleBudget.endScenario());
+    }
+}
@@ -0,0 +1,40 @@
+package listeners;
+
+import driver.DeviceScheduler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import utils.ConfigReader;
+
+import java.util.List;
+
+/**
+ * Single place where scenario concurrency is decided.
+ * Sets the data-provider thread count of every suite to the number of device slots,
+ * so each Cucumber scenario worker gets its own device and driver.
+ * {@code scenario.threads} in config.properties overrides the device count.
+ * Registered through META-INF/services/org.testng.ITestNGListener, since TestNG applies suite-altering
+ * listeners only from there or from suite XML, never from {@code @Listeners}.
+ */
+public class ParallelExecutionListener implements IAlterSuiteListener {
+
+    private static final Logger logger = LogManager.getLogger(ParallelExecutionListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threads = resolveThreadCount();
+        for (XmlSuite suite : suites) {
+            suite.setDataProviderThreadCount(threads);
+            logger.info("Suite '{}' will run {} scenario(s) in parallel.", suite.getName(), threads);
+        }
+    }
+
+    private int resolveThreadCount() {
+        int configured = ConfigReader.getInstance().getInt("scenario.threads", 0);
+        if (configured > 0) {
+            return configured;
+        }
+        return Math.max(1, DeviceScheduler.getInstance().size());
+    }
+}
@@ -9,6 +9,7 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.IdleBudget;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -108,7 +109,7 @@ public class SetupForAndroid {
                 driver.activateApp("com.netway.phone.advice");
                 logger.info("App activated again.");
 
-                Thread.sleep(10000);
+                IdleBudget.sleep("SetupForAndroid", 10000);
             } catch (MalformedURLException e) {
                 logger.error("Failed to create AndroidDriver session", e);
                 return;
@@ -161,7 +162,7 @@ public class SetupForAndroid {
             otpInput.sendKeys("123456");
             logger.info("OTP entered successfully.");
 
-            Thread.sleep(5000);
+            IdleBudget.sleep("SetupForAndroid", 5000);
 
             driver.quit();
             logger.info("AndroidDriver session closed cleanly.");